@@ -0,0 +1,44 @@
+package com.boot.junit.benchmark;
+
+import com.boot.junit.JunitApplication;
+import com.boot.junit.service.UsersService;
+import com.boot.junit.shared.UserDto;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Boots the full application against its embedded H2 database for the layer benchmarks
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String... properties) {
+        return new SpringApplicationBuilder(JunitApplication.class)
+                .properties("server.port=0",
+                        "spring.main.banner-mode=off",
+                        "spring.h2.console.enabled=false",
+                        "logging.level.root=WARN")
+                .properties(properties)
+                .run();
+    }
+
+    static List<UserDto> seedUsers(UsersService usersService, int count) {
+        List<UserDto> createdUsers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            createdUsers.add(usersService.createUser(newUser("seed" + i)));
+        }
+        return createdUsers;
+    }
+
+    static UserDto newUser(String name) {
+        UserDto userDto = new UserDto();
+        userDto.setFirstName("First" + name);
+        userDto.setLastName("Last" + name);
+        userDto.setEmail(name + "@pagli.com");
+        userDto.setPassword("12345678");
+        return userDto;
+    }
+}
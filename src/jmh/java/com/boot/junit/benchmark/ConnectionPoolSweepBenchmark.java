@@ -0,0 +1,76 @@
+package com.boot.junit.benchmark;
+
+import com.boot.junit.service.UsersService;
+import com.boot.junit.shared.UserDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Sweeps users.datasource.pool.maximum-pool-size under a fixed number of concurrent callers of UsersServiceImpl.
+// The service caches are switched off so every call needs a connection. Mean and max pool acquire time
+// (hikaricp.connections.acquire) are printed per trial next to the JMH throughput and latency numbers.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(32)
+@Fork(1)
+public class ConnectionPoolSweepBenchmark {
+
+    @Param({"2", "4", "8", "16", "32"})
+    private int poolSize;
+
+    @Param({"1000"})
+    private int seededUsers;
+
+    private final AtomicLong createdCount = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private UsersService usersService;
+    private List<UserDto> users;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkApplication.start("spring.cache.type=none",
+                "users.datasource.pool.maximum-pool-size=" + poolSize,
+                "users.datasource.pool.minimum-idle=" + poolSize);
+        usersService = context.getBean(UsersService.class);
+        users = BenchmarkApplication.seedUsers(usersService, seededUsers);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Timer acquire = context.getBean(MeterRegistry.class).find("hikaricp.connections.acquire").timer();
+        if (acquire != null) {
+            System.out.printf("%npoolSize=%d acquire count=%d mean=%.3fms max=%.3fms%n", poolSize, acquire.count(),
+                    acquire.mean(TimeUnit.MILLISECONDS), acquire.max(TimeUnit.MILLISECONDS));
+        }
+        context.close();
+    }
+
+    @Benchmark
+    public UserDto getUser() {
+        return usersService.getUser(users.get(ThreadLocalRandom.current().nextInt(users.size())).getEmail());
+    }
+
+    @Benchmark
+    public List<UserDto> getUsers() {
+        return usersService.getUsers(ThreadLocalRandom.current().nextInt(seededUsers / 20) + 1, 20);
+    }
+
+    // 9 reads : 1 write mix
+    @Benchmark
+    public UserDto mixed() {
+        if (ThreadLocalRandom.current().nextInt(10) == 0) {
+            return usersService.createUser(BenchmarkApplication.newUser("pool" + createdCount.incrementAndGet()));
+        }
+        return getUser();
+    }
+}
@@ -0,0 +1,63 @@
+package com.boot.junit.benchmark;
+
+import com.boot.junit.controller.UserDetailsRequestValidator;
+import com.boot.junit.model.UserDetailsRequestModel;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Hibernate Validator (@Valid path before) vs UserDetailsRequestValidator, for a valid and an invalid signup payload
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserDetailsValidationBenchmark {
+
+    @Param({"valid", "invalid"})
+    private String payload;
+
+    private ValidatorFactory validatorFactory;
+    private Validator beanValidator;
+    private UserDetailsRequestValidator userDetailsValidator;
+    private UserDetailsRequestModel requestModel;
+
+    @Setup
+    public void setup() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        beanValidator = validatorFactory.getValidator();
+        userDetailsValidator = new UserDetailsRequestValidator();
+
+        requestModel = new UserDetailsRequestModel();
+        requestModel.setFirstName("Shilpi");
+        requestModel.setLastName("Patel");
+        requestModel.setEmail("valid".equals(payload) ? "shilpi@pagli.com" : "shilpi@@pagli");
+        requestModel.setPassword("12345678");
+        requestModel.setRepeatPassword("valid".equals(payload) ? "12345678" : "1234567");
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserDetailsRequestModel>> hibernateValidator() {
+        return beanValidator.validate(requestModel);
+    }
+
+    @Benchmark
+    public Errors userDetailsRequestValidator() {
+        Errors errors = new BeanPropertyBindingResult(requestModel, "userDetailsRequestModel");
+        userDetailsValidator.validate(requestModel, errors);
+        return errors;
+    }
+}
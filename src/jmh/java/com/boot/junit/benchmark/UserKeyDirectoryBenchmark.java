@@ -0,0 +1,105 @@
+package com.boot.junit.benchmark;
+
+import com.boot.junit.shared.UserKeyDirectory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// email -> userId lookups against UserKeyDirectory vs a ConcurrentHashMap of the same keys, for 1M and 10M users.
+// Memory per user is printed per trial: direct bytes for the directory, retained heap (after GC) for both.
+// The heap figure is a before / after delta, good for comparing the two, not an exact object size.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+// The directory is off-heap: MaxDirectMemorySize is set explicitly, as production has to (see users.directory)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g", "-XX:MaxDirectMemorySize=4g"})
+public class UserKeyDirectoryBenchmark {
+
+    private static final int PROBES = 1 << 16;
+
+    @Param({"1000000", "10000000"})
+    private int users;
+
+    @Param({"offheap", "hashmap"})
+    private String directory;
+
+    private UserKeyDirectory userKeyDirectory;
+    private ConcurrentHashMap<String, HeapEntry> heapDirectory;
+    private String[] hits;
+    private String[] misses;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        long heapBefore = usedHeap();
+        Random random = new Random(42);
+        if ("offheap".equals(directory)) {
+            userKeyDirectory = new UserKeyDirectory(users);
+            for (int i = 0; i < users; i++) {
+                userKeyDirectory.put(i + 1, new UUID(random.nextLong(), random.nextLong()).toString(), email(i));
+            }
+        } else {
+            heapDirectory = new ConcurrentHashMap<>(users * 4 / 3 + 1);
+            for (int i = 0; i < users; i++) {
+                heapDirectory.put(email(i), new HeapEntry(i + 1, new UUID(random.nextLong(), random.nextLong()).toString()));
+            }
+        }
+        long heapBytes = usedHeap() - heapBefore;
+        long directBytes = userKeyDirectory == null ? 0 : userKeyDirectory.usedBytes();
+
+        System.out.printf("%nusers=%d directory=%s heap bytes/user=%.1f direct bytes/user=%.1f%n",
+                users, directory, (double) heapBytes / users, (double) directBytes / users);
+
+        // probe keys are separate String instances, as they would be when parsed from a request
+        hits = new String[PROBES];
+        misses = new String[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            hits[i] = email(random.nextInt(users));
+            misses[i] = "missing" + i + "@pagli.com";
+        }
+    }
+
+    @Benchmark
+    public String lookupHit() {
+        return lookup(hits[ThreadLocalRandom.current().nextInt(PROBES)]);
+    }
+
+    @Benchmark
+    public String lookupMiss() {
+        return lookup(misses[ThreadLocalRandom.current().nextInt(PROBES)]);
+    }
+
+    private String lookup(String email) {
+        if (userKeyDirectory != null) return userKeyDirectory.findUserId(email);
+
+        HeapEntry entry = heapDirectory.get(email);
+        return entry == null ? null : entry.userId;
+    }
+
+    private static String email(int i) {
+        return "user" + i + "@pagli.com";
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static final class HeapEntry {
+        private final long id;
+        private final String userId;
+
+        HeapEntry(long id, String userId) {
+            this.id = id;
+            this.userId = userId;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.boot.junit.benchmark;
+
+import com.boot.junit.model.UserDetailsRequestModel;
+import com.boot.junit.model.UserRest;
+import com.boot.junit.repo.UserEntity;
+import com.boot.junit.shared.UserDto;
+import com.boot.junit.shared.UserMapper;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.TypeToken;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Compares the previous new ModelMapper() per call path against UserMapper for single and list mappings
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserMapperBenchmark {
+
+    @Param({"10", "1000"})
+    private int pageSize;
+
+    private UserDetailsRequestModel requestModel;
+    private List<UserEntity> entities;
+    private List<UserDto> dtos;
+
+    @Setup
+    public void setup() {
+        requestModel = new UserDetailsRequestModel();
+        requestModel.setFirstName("Shilpi");
+        requestModel.setLastName("Patel");
+        requestModel.setEmail("shilpi@pagli.com");
+        requestModel.setPassword("12345678");
+        requestModel.setRepeatPassword("12345678");
+
+        entities = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            UserEntity userEntity = new UserEntity();
+            userEntity.setId(i);
+            userEntity.setUserId(UUID.randomUUID().toString());
+            userEntity.setFirstName("First" + i);
+            userEntity.setLastName("Last" + i);
+            userEntity.setEmail("user" + i + "@pagli.com");
+            entities.add(userEntity);
+        }
+        dtos = UserMapper.toDtos(entities);
+    }
+
+    @Benchmark
+    public UserRest modelMapperCreateUser() {
+        ModelMapper modelMapper = new ModelMapper();
+        UserDto userDto = new ModelMapper().map(requestModel, UserDto.class);
+        UserEntity userEntity = modelMapper.map(userDto, UserEntity.class);
+        return modelMapper.map(modelMapper.map(userEntity, UserDto.class), UserRest.class);
+    }
+
+    @Benchmark
+    public UserRest userMapperCreateUser() {
+        UserDto userDto = UserMapper.toDto(requestModel);
+        UserEntity userEntity = UserMapper.toEntity(userDto);
+        return UserMapper.toRest(UserMapper.toDto(userEntity));
+    }
+
+    @Benchmark
+    public List<UserRest> modelMapperGetUsers() {
+        Type dtoListType = new TypeToken<List<UserDto>>() {
+        }.getType();
+        List<UserDto> users = new ModelMapper().map(entities, dtoListType);
+
+        Type restListType = new TypeToken<List<UserRest>>() {
+        }.getType();
+        return new ModelMapper().map(users, restListType);
+    }
+
+    @Benchmark
+    public List<UserRest> userMapperGetUsers() {
+        return UserMapper.toRests(UserMapper.toDtos(entities));
+    }
+
+    @Benchmark
+    public List<UserRest> userMapperToRests() {
+        return UserMapper.toRests(dtos);
+    }
+}
@@ -0,0 +1,71 @@
+package com.boot.junit.benchmark;
+
+import com.boot.junit.model.UserRest;
+import com.boot.junit.model.UserRestSerializer;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Default reflective BeanSerializer vs UserRestSerializer for GET /users sized pages.
+// Writes into a reused stream, like the servlet output stream, so the gc profiler shows serializer allocations only.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserRestSerializationBenchmark {
+
+    private static final TypeReference<List<UserRest>> USER_LIST = new TypeReference<List<UserRest>>() {
+    };
+
+    @Param({"10", "1000", "100000"})
+    private int pageSize;
+
+    private List<UserRest> users;
+    private ObjectWriter defaultWriter;
+    private ObjectWriter customWriter;
+    private ByteArrayOutputStream out;
+
+    @Setup
+    public void setup() {
+        users = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            UserRest user = new UserRest();
+            user.setUserId(UUID.randomUUID().toString());
+            user.setFirstName("First" + i);
+            user.setLastName("Last" + i);
+            user.setEmail("user" + i + "@pagli.com");
+            users.add(user);
+        }
+
+        defaultWriter = new ObjectMapper().writerFor(USER_LIST);
+        customWriter = new ObjectMapper()
+                .registerModule(new SimpleModule().addSerializer(new UserRestSerializer()))
+                .writerFor(USER_LIST);
+        out = new ByteArrayOutputStream(pageSize * 128);
+    }
+
+    @Benchmark
+    public int defaultSerializer() throws IOException {
+        out.reset();
+        defaultWriter.writeValue(out, users);
+        return out.size();
+    }
+
+    @Benchmark
+    public int userRestSerializer() throws IOException {
+        out.reset();
+        customWriter.writeValue(out, users);
+        return out.size();
+    }
+}
@@ -0,0 +1,72 @@
+package com.boot.junit.benchmark;
+
+import com.boot.junit.service.UsersService;
+import com.boot.junit.shared.UserDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Saturation load test over real HTTP: 256 client threads against a 16 thread Tomcat and the 10 connection pool,
+// with and without admission control. SampleTime reports p99 / p99.9 per mode; with admission enabled the
+// fast 429/503 rejections are part of the distribution, the status code is returned as the blackhole sink.
+// Client buckets are sized out of the way (all threads share one address) so the endpoint and concurrency limits act.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Threads(256)
+@Fork(1)
+public class UsersAdmissionBenchmark {
+
+    @Param({"false", "true"})
+    private boolean admission;
+
+    @Param({"1000"})
+    private int seededUsers;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String baseUrl;
+    private List<UserDto> users;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkApplication.start("users.admission.enabled=" + admission,
+                "users.admission.client.capacity=1000000",
+                "users.admission.client.refill-per-second=1000000",
+                "users.admission.concurrency.latency-target=20ms",
+                "server.tomcat.threads.max=16");
+        users = BenchmarkApplication.seedUsers(context.getBean(UsersService.class), seededUsers);
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/users";
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getUser() throws Exception {
+        UserDto user = users.get(ThreadLocalRandom.current().nextInt(users.size()));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/email?emailName=" + user.getEmail())).GET().build();
+
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Benchmark
+    public int getUsers() throws Exception {
+        int page = ThreadLocalRandom.current().nextInt(seededUsers / 100) + 1;
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "?page=" + page + "&limit=100")).GET().build();
+
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
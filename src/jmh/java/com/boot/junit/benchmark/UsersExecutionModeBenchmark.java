@@ -0,0 +1,68 @@
+package com.boot.junit.benchmark;
+
+import com.boot.junit.service.UsersService;
+import com.boot.junit.shared.UserDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Load test over real HTTP: 256 client threads, comparing the blocking /users reads with the /async/users reads on
+// usersTaskExecutor. Tomcat and usersTaskExecutor both keep their default 200 threads, so neither mode starts with
+// a smaller pool than the other.
+// Rejected (503) responses count as completed calls, the returned status code is kept only as a blackhole sink.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(256)
+@Fork(1)
+public class UsersExecutionModeBenchmark {
+
+    @Param({"/users", "/async/users"})
+    private String basePath;
+
+    @Param({"1000"})
+    private int seededUsers;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String baseUrl;
+    private List<UserDto> users;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkApplication.start("users.execution.mode=async");
+        users = BenchmarkApplication.seedUsers(context.getBean(UsersService.class), seededUsers);
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + basePath;
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getUser() throws Exception {
+        UserDto user = users.get(ThreadLocalRandom.current().nextInt(users.size()));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/email?emailName=" + user.getEmail())).GET().build();
+
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Benchmark
+    public int getUsers() throws Exception {
+        int page = ThreadLocalRandom.current().nextInt(seededUsers / 20) + 1;
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "?page=" + page + "&limit=20")).GET().build();
+
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,82 @@
+package com.boot.junit.benchmark;
+
+import com.boot.junit.service.UsersService;
+import com.boot.junit.shared.UserDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Full /users round-trips through the DispatcherServlet (JSON in, JSON out) without the network
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UsersMockMvcBenchmark {
+
+    @Param({"1000"})
+    private int seededUsers;
+
+    @Param({"20"})
+    private int pageSize;
+
+    private final AtomicLong createdCount = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private List<UserDto> users;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkApplication.start();
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+        users = BenchmarkApplication.seedUsers(context.getBean(UsersService.class), seededUsers);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MvcResult createUser() throws Exception {
+        String email = "bench" + createdCount.incrementAndGet() + "@pagli.com";
+        String body = "{\"firstName\":\"Shilpi\",\"lastName\":\"Patel\",\"email\":\"" + email
+                + "\",\"password\":\"12345678\",\"repeatPassword\":\"12345678\"}";
+
+        return mockMvc.perform(MockMvcRequestBuilders.post("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(body)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getUsers() throws Exception {
+        int page = ThreadLocalRandom.current().nextInt(seededUsers / pageSize) + 1;
+
+        return mockMvc.perform(MockMvcRequestBuilders.get("/users")
+                .queryParam("page", String.valueOf(page))
+                .queryParam("limit", String.valueOf(pageSize))
+                .accept(MediaType.APPLICATION_JSON)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getUser() throws Exception {
+        UserDto user = users.get(ThreadLocalRandom.current().nextInt(users.size()));
+
+        return mockMvc.perform(MockMvcRequestBuilders.get("/users/email")
+                .queryParam("emailName", user.getEmail())
+                .accept(MediaType.APPLICATION_JSON)).andReturn();
+    }
+}
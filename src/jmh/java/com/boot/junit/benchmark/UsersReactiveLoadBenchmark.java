@@ -0,0 +1,73 @@
+package com.boot.junit.benchmark;
+
+import com.boot.junit.service.UsersService;
+import com.boot.junit.shared.UserDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Servlet (Tomcat + JPA) vs reactive (Netty + R2DBC) stack under 256 concurrent clients, same endpoints and data,
+// both uncached.
+// SampleTime gives the p50 / p99 per stack; ops/s is the throughput. The reactive stack is only on the classpath
+// with both profiles: mvn -Pbenchmark,reactive -DskipTests verify -Djmh.args="UsersReactiveLoadBenchmark"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Threads(256)
+@Fork(1)
+public class UsersReactiveLoadBenchmark {
+
+    @Param({"mvc", "reactive"})
+    private String stack;
+
+    @Param({"1000"})
+    private int seededUsers;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String baseUrl;
+    private List<UserDto> users;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // The reactive stack reads the database on every request, so the servlet stack's Caffeine caches and Hibernate
+        // second-level / query caches are switched off too; otherwise mvc getUser would measure cache hits
+        context = BenchmarkApplication.start("spring.profiles.active=" + ("reactive".equals(stack) ? "reactive" : "default"),
+                "spring.cache.type=none",
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                "spring.jpa.properties.hibernate.cache.use_query_cache=false");
+        users = BenchmarkApplication.seedUsers(context.getBean(UsersService.class), seededUsers);
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/users";
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getUser() throws Exception {
+        UserDto user = users.get(ThreadLocalRandom.current().nextInt(users.size()));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/" + user.getUserId())).GET().build();
+
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Benchmark
+    public int getUsers() throws Exception {
+        int page = ThreadLocalRandom.current().nextInt(seededUsers / 100) + 1;
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "?page=" + page + "&limit=100")).GET().build();
+
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
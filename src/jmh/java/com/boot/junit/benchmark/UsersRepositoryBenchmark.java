@@ -0,0 +1,83 @@
+package com.boot.junit.benchmark;
+
+import com.boot.junit.repo.UserEntity;
+import com.boot.junit.repo.UserSummary;
+import com.boot.junit.repo.UsersRepository;
+import com.boot.junit.service.UsersService;
+import com.boot.junit.shared.UserDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// UsersRepository finders on their own, against the embedded H2 database
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UsersRepositoryBenchmark {
+
+    @Param({"1000"})
+    private int seededUsers;
+
+    @Param({"20"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private UsersRepository usersRepository;
+    private List<UserDto> users;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkApplication.start();
+        usersRepository = context.getBean(UsersRepository.class);
+        users = BenchmarkApplication.seedUsers(context.getBean(UsersService.class), seededUsers);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserEntity findByEmail() {
+        return usersRepository.findByEmail(randomUser().getEmail());
+    }
+
+    @Benchmark
+    public UserEntity findByUserId() {
+        return usersRepository.findByUserId(randomUser().getUserId());
+    }
+
+    @Benchmark
+    public UserEntity findByLastName() {
+        return usersRepository.findByLastName(randomUser().getLastName());
+    }
+
+    @Benchmark
+    public List<UserEntity> findUsersWithEmailEndingWith() {
+        return usersRepository.findUsersWithEmailEndingWith(randomUser().getEmail());
+    }
+
+    @Benchmark
+    public Page<UserEntity> findAllPaged() {
+        int page = ThreadLocalRandom.current().nextInt(seededUsers / pageSize);
+        return usersRepository.findAll(PageRequest.of(page, pageSize));
+    }
+
+    @Benchmark
+    public List<UserSummary> findSummaries() {
+        int page = ThreadLocalRandom.current().nextInt(seededUsers / pageSize);
+        return usersRepository.findSummaries(PageRequest.of(page, pageSize));
+    }
+
+    private UserDto randomUser() {
+        return users.get(ThreadLocalRandom.current().nextInt(users.size()));
+    }
+}
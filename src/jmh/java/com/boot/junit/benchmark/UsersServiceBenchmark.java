@@ -0,0 +1,70 @@
+package com.boot.junit.benchmark;
+
+import com.boot.junit.service.UsersService;
+import com.boot.junit.shared.UserDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// UsersServiceImpl through the Spring proxy, backed by the embedded H2 database
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UsersServiceBenchmark {
+
+    @Param({"1000"})
+    private int seededUsers;
+
+    @Param({"20"})
+    private int pageSize;
+
+    private final AtomicLong createdCount = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private UsersService usersService;
+    private List<UserDto> users;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkApplication.start();
+        usersService = context.getBean(UsersService.class);
+        users = BenchmarkApplication.seedUsers(usersService, seededUsers);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserDto createUser() {
+        return usersService.createUser(BenchmarkApplication.newUser("bench" + createdCount.incrementAndGet()));
+    }
+
+    @Benchmark
+    public List<UserDto> getUsers() {
+        int page = ThreadLocalRandom.current().nextInt(seededUsers / pageSize) + 1;
+        return usersService.getUsers(page, pageSize);
+    }
+
+    @Benchmark
+    public UserDto getUser() {
+        return usersService.getUser(randomUser().getEmail());
+    }
+
+    @Benchmark
+    public UserDto getUserByLastName() {
+        return usersService.getUserByLastName(randomUser().getLastName());
+    }
+
+    private UserDto randomUser() {
+        return users.get(ThreadLocalRandom.current().nextInt(users.size()));
+    }
+}
@@ -0,0 +1,78 @@
+package com.boot.junit.benchmark;
+
+import com.boot.junit.service.UsersService;
+import com.boot.junit.shared.UserDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// End to end GET /users latency over real HTTP for page sizes of 100 to 10000 users,
+// HTTP/1.1 vs h2c and identity vs gzip. HttpClient does not decode gzip, so the body length is the size on the wire;
+// it is printed per trial next to the timings.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UsersWireBenchmark {
+
+    private static final int SEED_CHUNK = 500;
+
+    @Param({"100", "1000", "10000"})
+    private int pageSize;
+
+    @Param({"identity", "gzip"})
+    private String encoding;
+
+    @Param({"HTTP_1_1", "HTTP_2"})
+    private HttpClient.Version protocol;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private HttpRequest request;
+    private long wireBytes;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        context = BenchmarkApplication.start();
+        UsersService usersService = context.getBean(UsersService.class);
+        List<UserDto> chunk = new ArrayList<>(SEED_CHUNK);
+        for (int i = 0; i < pageSize; i++) {
+            chunk.add(BenchmarkApplication.newUser("wire" + i));
+            if (chunk.size() == SEED_CHUNK || i == pageSize - 1) {
+                usersService.createUsers(chunk);
+                chunk = new ArrayList<>(SEED_CHUNK);
+            }
+        }
+
+        String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/users";
+        httpClient = HttpClient.newBuilder().version(protocol).build();
+        request = HttpRequest.newBuilder(URI.create(baseUrl + "?page=1&limit=" + pageSize))
+                .header(HttpHeaders.ACCEPT_ENCODING, encoding)
+                .GET()
+                .build();
+        wireBytes = getUsers();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%npageSize=%d encoding=%s protocol=%s bytes=%d%n", pageSize, encoding, protocol, wireBytes);
+        context.close();
+    }
+
+    @Benchmark
+    public long getUsers() throws Exception {
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+
+        return response.body().length;
+    }
+}
@@ -3,11 +3,13 @@ package com.boot.junit;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.scheduling.annotation.EnableAsync;
 
 @SpringBootApplication
 @EnableConfigurationProperties
 @EnableAsync
+@EnableCaching
 public class JunitApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,35 @@
+package com.boot.junit.config;
+
+import com.boot.junit.controller.UsersAdmissionInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@ConditionalOnProperty(prefix = "users.admission", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(UsersAdmissionProperties.class)
+public class AdmissionConfig implements WebMvcConfigurer {
+
+    UsersAdmissionProperties properties;
+    MeterRegistry meterRegistry;
+
+    public AdmissionConfig(UsersAdmissionProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    public UsersAdmissionInterceptor usersAdmissionInterceptor() {
+        return new UsersAdmissionInterceptor(properties, meterRegistry);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(usersAdmissionInterceptor())
+                .addPathPatterns("/users", "/users/**", "/async/users", "/async/users/**");
+    }
+}
@@ -0,0 +1,37 @@
+package com.boot.junit.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.task.TaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@ConditionalOnProperty(prefix = "users.execution", name = "mode", havingValue = "async")
+@EnableConfigurationProperties(UsersExecutionProperties.class)
+public class AsyncExecutionConfig {
+
+    public static final String USERS_TASK_EXECUTOR = "usersTaskExecutor";
+
+    // A ThreadPoolExecutor only grows past its core size once the queue is full, so core = max: every thread is
+    // used before anything queues, and idle ones still time out
+    @Bean(name = USERS_TASK_EXECUTOR)
+    public ThreadPoolTaskExecutor usersTaskExecutor(UsersExecutionProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getMaxPoolSize());
+        executor.setMaxPoolSize(properties.getMaxPoolSize());
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setThreadNamePrefix("users-async-");
+        return executor;
+    }
+
+    // Declaring usersTaskExecutor makes Boot back off its own executor, so keep the default one for MVC async and @Async
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    @Primary
+    public ThreadPoolTaskExecutor applicationTaskExecutor(TaskExecutorBuilder builder) {
+        return builder.build();
+    }
+}
@@ -0,0 +1,33 @@
+package com.boot.junit.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+@Configuration
+@EnableConfigurationProperties(UsersPoolProperties.class)
+public class DataSourcePoolConfig {
+
+    // Applies users.datasource.pool.* to every HikariDataSource before its pool starts.
+    // Bound straight from the Environment because post processors are created before regular beans.
+    @Bean
+    public static BeanPostProcessor usersPoolTuning(Environment environment) {
+        UsersPoolProperties properties = Binder.get(environment)
+                .bind(UsersPoolProperties.PREFIX, UsersPoolProperties.class)
+                .orElseGet(UsersPoolProperties::new);
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource) {
+                    properties.applyTo((HikariDataSource) bean);
+                }
+                return bean;
+            }
+        };
+    }
+}
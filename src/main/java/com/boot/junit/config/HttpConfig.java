@@ -0,0 +1,33 @@
+package com.boot.junit.config;
+
+import org.apache.coyote.UpgradeProtocol;
+import org.apache.coyote.http2.Http2Protocol;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(UsersHttpProperties.class)
+public class HttpConfig {
+
+    // With server.http2.enabled Boot adds Tomcat's Http2Protocol to the plain connector (h2c upgrade and prior knowledge),
+    // connector customizers run after that so the protocol can be tuned here. It inherits the gzip settings of the connector.
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> http2Customizer(UsersHttpProperties properties) {
+        UsersHttpProperties.Http2 http2 = properties.getHttp2();
+        return factory -> factory.addConnectorCustomizers(connector -> {
+            for (UpgradeProtocol upgradeProtocol : connector.findUpgradeProtocols()) {
+                if (upgradeProtocol instanceof Http2Protocol) {
+                    Http2Protocol protocol = (Http2Protocol) upgradeProtocol;
+                    protocol.setKeepAliveTimeout(http2.getKeepAliveTimeout().toMillis());
+                    protocol.setReadTimeout(http2.getReadTimeout().toMillis());
+                    protocol.setWriteTimeout(http2.getWriteTimeout().toMillis());
+                    protocol.setMaxConcurrentStreams(http2.getMaxConcurrentStreams());
+                    protocol.setInitialWindowSize(http2.getInitialWindowSize());
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,34 @@
+package com.boot.junit.config;
+
+import com.boot.junit.service.UserOutboxDispatcher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+@Configuration
+@EnableConfigurationProperties(UsersOutboxProperties.class)
+public class OutboxConfig {
+
+    // Scheduled poll of the outbox, only when users.outbox.enabled
+    @Configuration
+    @ConditionalOnProperty(prefix = "users.outbox", name = "enabled", havingValue = "true")
+    @EnableScheduling
+    static class OutboxPollConfig implements SchedulingConfigurer {
+
+        UserOutboxDispatcher dispatcher;
+        UsersOutboxProperties properties;
+
+        OutboxPollConfig(UserOutboxDispatcher dispatcher, UsersOutboxProperties properties) {
+            this.dispatcher = dispatcher;
+            this.properties = properties;
+        }
+
+        @Override
+        public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+            taskRegistrar.addFixedDelayTask(dispatcher::drain, properties.getPollInterval().toMillis());
+        }
+    }
+}
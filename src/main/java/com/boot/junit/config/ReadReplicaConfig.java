@@ -0,0 +1,114 @@
+package com.boot.junit.config;
+
+import com.boot.junit.controller.ReadYourWritesFilter;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Replaces Boot's single DataSource with primary + replica pools behind ReadWriteRoutingDataSource
+@Configuration
+@ConditionalOnProperty(prefix = "users.datasource.replicas", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties({DataSourceProperties.class, UsersReplicaProperties.class, UsersPoolProperties.class})
+public class ReadReplicaConfig {
+
+    @Bean
+    public ReadWriteRoutingDataSource usersRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                             UsersReplicaProperties replicaProperties,
+                                                             UsersPoolProperties poolProperties) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool(primary, poolProperties, "primary");
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<UsersReplicaProperties.Replica> instances = replicaProperties.getInstances();
+        for (int i = 0; i < instances.size(); i++) {
+            UsersReplicaProperties.Replica instance = instances.get(i);
+            HikariDataSource replica = new HikariDataSource();
+            replica.setJdbcUrl(instance.getUrl());
+            replica.setUsername(instance.getUsername());
+            replica.setPassword(instance.getPassword());
+            // a replica that is down at startup is ejected by the health check instead of failing the boot
+            replica.setInitializationFailTimeout(-1);
+            pool(replica, poolProperties, "replica-" + i);
+            replicas.put("replica-" + i, replica);
+        }
+
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(primary, replicas,
+                replicaProperties.getHealthCheckQuery());
+        routingDataSource.startHealthChecks(replicaProperties.getHealthCheckInterval().toMillis(),
+                (int) Math.max(1, replicaProperties.getHealthCheckTimeout().getSeconds()));
+        return routingDataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource usersRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(usersRoutingDataSource);
+    }
+
+    // Bound once the registry exists. Asking for the MeterRegistry while the DataSource is built is a cycle:
+    // the registry's binders include Boot's DataSource pool metrics, which need the DataSource.
+    @Bean
+    public MeterBinder replicaPoolMetrics(ReadWriteRoutingDataSource usersRoutingDataSource) {
+        return registry -> bindPoolMetrics(usersRoutingDataSource.getResolvedDataSources().values(), registry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(UsersReplicaProperties replicaProperties) {
+        byte[] secret;
+        if (StringUtils.hasText(replicaProperties.getStickyCookieSecret())) {
+            secret = replicaProperties.getStickyCookieSecret().getBytes(StandardCharsets.UTF_8);
+        } else {
+            secret = new byte[32];
+            new SecureRandom().nextBytes(secret);
+        }
+        FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(
+                new ReadYourWritesFilter(replicaProperties.getStickyCookie(), replicaProperties.getStickiness(), secret));
+        registration.addUrlPatterns("/users", "/users/*", "/async/users", "/async/users/*");
+        return registration;
+    }
+
+    // The query cache is shared by all databases and also stores empty results. An unpinned read from a lagging replica
+    // right after a create would cache "no such user" past the create's invalidation and defeat read-your-writes, so it
+    // is off with replicas. The entity cache stays: it is keyed by id and only holds rows that exist. Remaining window:
+    // a replica read racing an update could put the previous version back until the next write or expiry; users are
+    // never updated today, and @Version would reject a write based on it.
+    @Bean
+    public HibernatePropertiesCustomizer replicaSafeQueryCache() {
+        return properties -> properties.put(AvailableSettings.USE_QUERY_CACHE, false);
+    }
+
+    // These pools are not beans, so users.datasource.pool.* is applied here and the hikaricp metrics by bindPoolMetrics
+    static void pool(HikariDataSource dataSource, UsersPoolProperties poolProperties, String role) {
+        poolProperties.applyTo(dataSource);
+        dataSource.setPoolName(poolProperties.getPoolName() + "-" + role);
+    }
+
+    // Hikari accepts a metrics tracker once, also on a pool that already started
+    static void bindPoolMetrics(Collection<DataSource> dataSources, MeterRegistry meterRegistry) {
+        for (DataSource dataSource : dataSources) {
+            if (dataSource instanceof HikariDataSource) {
+                ((HikariDataSource) dataSource).setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.boot.junit.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Routes @Transactional(readOnly = true) work round-robin over the healthy replicas, everything else to the primary.
+// Must sit behind a LazyConnectionDataSourceProxy: the read-only flag is only published after the transaction
+// manager asked for its connection, the proxy defers that until the first statement.
+// Replicas start out of rotation and join once the first health probe passes.
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+
+    // Read-your-writes pin for the current thread, set per request by ReadYourWritesFilter
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final Map<String, DataSource> replicas;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final String validationQuery;
+    private volatile List<String> healthyReplicas = new ArrayList<>();
+    private ScheduledExecutorService healthChecks;
+
+    public ReadWriteRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, String validationQuery) {
+        this.primary = primary;
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.validationQuery = validationQuery;
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    public static void pinToPrimary() {
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+    }
+
+    public static void unpin() {
+        PINNED_TO_PRIMARY.remove();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || PINNED_TO_PRIMARY.get() != null)
+            return PRIMARY;
+
+        List<String> candidates = healthyReplicas;
+        if (candidates.isEmpty()) return PRIMARY;
+
+        return candidates.get(Math.floorMod(nextReplica.getAndIncrement(), candidates.size()));
+    }
+
+    public void startHealthChecks(long intervalMillis, int timeoutSeconds) {
+        healthChecks = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "users-replica-health");
+            thread.setDaemon(true);
+            return thread;
+        });
+        healthChecks.scheduleWithFixedDelay(() -> checkReplicas(timeoutSeconds), 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Ejects replicas that cannot hand out a valid connection (or fail the validation query), re-admits them once they can.
+    // Synchronized so the last published result always comes from the latest probe.
+    synchronized void checkReplicas(int timeoutSeconds) {
+        List<String> healthy = new ArrayList<>(replicas.size());
+        for (Map.Entry<String, DataSource> replica : replicas.entrySet()) {
+            if (isValid(replica.getValue(), validationQuery, timeoutSeconds)) {
+                healthy.add(replica.getKey());
+            }
+        }
+
+        if (!healthy.equals(healthyReplicas)) {
+            log.warn("Healthy users replicas changed from {} to {}", healthyReplicas, healthy);
+        }
+        healthyReplicas = healthy;
+    }
+
+    List<String> getHealthyReplicas() {
+        return healthyReplicas;
+    }
+
+    private static boolean isValid(DataSource dataSource, String validationQuery, int timeoutSeconds) {
+        try (Connection connection = dataSource.getConnection()) {
+            if (validationQuery == null) return connection.isValid(timeoutSeconds);
+
+            try (Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(timeoutSeconds);
+                statement.execute(validationQuery);
+                return true;
+            }
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (healthChecks != null) healthChecks.shutdownNow();
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof Closeable) ((Closeable) replica).close();
+        }
+        if (primary instanceof Closeable) ((Closeable) primary).close();
+    }
+}
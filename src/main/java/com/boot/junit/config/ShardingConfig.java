@@ -0,0 +1,61 @@
+package com.boot.junit.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.MultiTenancyStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Shard pools plus the Hibernate multi-tenancy wiring. spring.datasource stays the directory database,
+// ShardedUsersService does the routing and the scatter-gather on top.
+@Configuration
+@ConditionalOnProperty(prefix = "users.datasource.shards", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties({UsersShardingProperties.class, UsersPoolProperties.class})
+public class ShardingConfig {
+
+    @Bean
+    public UserShardRouter userShardRouter(DataSource dataSource, UsersShardingProperties shardingProperties,
+                                           UsersPoolProperties poolProperties) {
+        Map<String, DataSource> shards = new LinkedHashMap<>();
+        List<UsersShardingProperties.Shard> instances = shardingProperties.getInstances();
+        for (int i = 0; i < instances.size(); i++) {
+            UsersShardingProperties.Shard instance = instances.get(i);
+            HikariDataSource shard = new HikariDataSource();
+            shard.setJdbcUrl(instance.getUrl());
+            shard.setUsername(instance.getUsername());
+            shard.setPassword(instance.getPassword());
+            ReadReplicaConfig.pool(shard, poolProperties, "shard-" + i);
+            shards.put("shard-" + i, shard);
+        }
+        return new UserShardRouter(dataSource, shards);
+    }
+
+    // Bound once the registry exists, the router is built with the DataSources (see ReadReplicaConfig)
+    @Bean
+    public MeterBinder shardPoolMetrics(UserShardRouter userShardRouter) {
+        return registry -> ReadReplicaConfig.bindPoolMetrics(userShardRouter.getShardDataSources(), registry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer userShardingHibernateProperties(UserShardRouter userShardRouter) {
+        return properties -> {
+            properties.put(AvailableSettings.MULTI_TENANT, MultiTenancyStrategy.DATABASE);
+            properties.put(AvailableSettings.MULTI_TENANT_CONNECTION_PROVIDER, userShardRouter);
+            properties.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, userShardRouter);
+            properties.put(EntityManagerFactoryBuilderImpl.INTEGRATOR_PROVIDER,
+                    (IntegratorProvider) () -> Collections.singletonList(new UserShardSchema(userShardRouter)));
+        };
+    }
+}
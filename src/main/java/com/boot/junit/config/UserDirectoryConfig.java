@@ -0,0 +1,32 @@
+package com.boot.junit.config;
+
+import com.boot.junit.shared.UserKeyDirectory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "users.directory", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(UsersDirectoryProperties.class)
+public class UserDirectoryConfig {
+
+    // Filled by UserKeyDirectoryLoader. Entry count and direct memory are published as users.directory.*
+    @Bean
+    public UserKeyDirectory userKeyDirectory(UsersDirectoryProperties properties, MeterRegistry meterRegistry) {
+        UserKeyDirectory directory = new UserKeyDirectory(properties.getExpectedUsers());
+        Gauge.builder("users.directory.size", directory, UserKeyDirectory::size)
+                .register(meterRegistry);
+        Gauge.builder("users.directory.memory", directory, UserKeyDirectory::usedBytes)
+                .tag("area", "used")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("users.directory.memory", directory, UserKeyDirectory::allocatedBytes)
+                .tag("area", "allocated")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        return directory;
+    }
+}
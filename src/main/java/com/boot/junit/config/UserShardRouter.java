@@ -0,0 +1,125 @@
+package com.boot.junit.config;
+
+import org.hibernate.Session;
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+import org.hibernate.engine.jdbc.connections.spi.AbstractDataSourceBasedMultiTenantConnectionProviderImpl;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Hibernate DATABASE multi-tenancy with one tenant per shard plus the directory. The tenant is fixed when a session
+// opens, so callers bind the shard with onShard(...) around the transaction, not inside it.
+// Tenant aware id generators and second-level cache keys keep per-shard users_seq values and cached rows apart.
+public class UserShardRouter extends AbstractDataSourceBasedMultiTenantConnectionProviderImpl
+        implements CurrentTenantIdentifierResolver, Closeable {
+
+    public static final String DIRECTORY = "directory";
+
+    // Shard of the current thread, unbound means the directory database
+    private static final ThreadLocal<String> CURRENT_SHARD = new ThreadLocal<>();
+
+    private final DataSource directory;
+    private final Map<String, DataSource> shards;
+    private final List<String> shardKeys;
+
+    public UserShardRouter(DataSource directory, Map<String, DataSource> shards) {
+        if (shards.isEmpty()) throw new IllegalArgumentException("At least one users shard is required");
+
+        this.directory = directory;
+        this.shards = new LinkedHashMap<>(shards);
+        this.shardKeys = new ArrayList<>(shards.keySet());
+    }
+
+    public String shardFor(String userId) {
+        int hash = userId.hashCode();
+        return shardKeys.get(Math.floorMod(hash ^ (hash >>> 16), shardKeys.size()));
+    }
+
+    public List<String> getShards() {
+        return shardKeys;
+    }
+
+    public Collection<DataSource> getShardDataSources() {
+        return shards.values();
+    }
+
+    public <T> T onShard(String shard, Supplier<T> work) {
+        checkBoundSessions(shard);
+
+        String previous = CURRENT_SHARD.get();
+        CURRENT_SHARD.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT_SHARD.remove();
+            } else {
+                CURRENT_SHARD.set(previous);
+            }
+        }
+    }
+
+    public void onShard(String shard, Runnable work) {
+        onShard(shard, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    // A session opened before the shard was bound (open-in-view, an outer transaction) keeps its tenant, and the work
+    // would quietly run against that database instead
+    private static void checkBoundSessions(String shard) {
+        for (Object resource : TransactionSynchronizationManager.getResourceMap().values()) {
+            if (!(resource instanceof EntityManagerHolder)) continue;
+
+            String tenant = ((EntityManagerHolder) resource).getEntityManager().unwrap(Session.class).getTenantIdentifier();
+            if (!shard.equals(tenant)) {
+                throw new IllegalStateException("EntityManager already open on " + tenant + ", can not switch to " + shard
+                        + ": bind the shard outside transactions and keep spring.jpa.open-in-view=false");
+            }
+        }
+    }
+
+    @Override
+    public String resolveCurrentTenantIdentifier() {
+        String shard = CURRENT_SHARD.get();
+        return shard == null ? DIRECTORY : shard;
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return true;
+    }
+
+    // Also the bootstrap and schema tool connection, which follows the bound shard (see UserShardSchema)
+    @Override
+    protected DataSource selectAnyDataSource() {
+        return selectDataSource(resolveCurrentTenantIdentifier());
+    }
+
+    @Override
+    protected DataSource selectDataSource(String tenantIdentifier) {
+        if (DIRECTORY.equals(tenantIdentifier)) return directory;
+
+        DataSource shard = shards.get(tenantIdentifier);
+        if (shard == null) throw new IllegalStateException("Unknown users shard " + tenantIdentifier);
+        return shard;
+    }
+
+    // The directory is Boot's DataSource bean and closed by the context
+    @Override
+    public void close() throws IOException {
+        for (DataSource shard : shards.values()) {
+            if (shard instanceof Closeable) ((Closeable) shard).close();
+        }
+    }
+}
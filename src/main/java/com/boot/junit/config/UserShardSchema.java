@@ -0,0 +1,54 @@
+package com.boot.junit.config;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.hbm2ddl.SchemaExport;
+import org.hibernate.tool.hbm2ddl.SchemaUpdate;
+import org.hibernate.tool.schema.TargetType;
+
+import java.util.EnumSet;
+import java.util.Locale;
+
+// With multi-tenancy Hibernate applies hbm2ddl.auto to the directory only. Repeats the same action on every shard,
+// so each one gets the users table and its own users_seq.
+class UserShardSchema implements Integrator {
+
+    private final UserShardRouter router;
+
+    UserShardSchema(UserShardRouter router) {
+        this.router = router;
+    }
+
+    @Override
+    public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        Object configuredAction = sessionFactory.getProperties().get(AvailableSettings.HBM2DDL_AUTO);
+        String action = configuredAction == null ? "none" : configuredAction.toString().trim().toLowerCase(Locale.ROOT);
+        EnumSet<TargetType> database = EnumSet.of(TargetType.DATABASE);
+
+        for (String shard : router.getShards()) {
+            router.onShard(shard, () -> {
+                switch (action) {
+                    case "create":
+                    case "create-drop":
+                        new SchemaExport().setHaltOnError(true).create(database, metadata);
+                        break;
+                    case "create-only":
+                        new SchemaExport().setHaltOnError(true).createOnly(database, metadata);
+                        break;
+                    case "update":
+                        new SchemaUpdate().setHaltOnError(true).execute(database, metadata);
+                        break;
+                    default:
+                        // none / validate: shards are managed outside the application
+                }
+            });
+        }
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+}
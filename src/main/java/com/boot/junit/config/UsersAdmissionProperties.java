@@ -0,0 +1,197 @@
+package com.boot.junit.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+@ConfigurationProperties(prefix = "users.admission")
+public class UsersAdmissionProperties {
+
+    // Off by default, nothing is registered unless enabled
+    private boolean enabled = false;
+
+    // Header holding the client identity (e.g. X-Forwarded-For behind a proxy), remote address when unset.
+    // For address lists the rightmost hop that is not one of trustedProxies is used, the entries left of it are
+    // whatever the client sent.
+    private String clientHeader;
+
+    // Addresses of our own proxies. When set, clientHeader is only read from requests that come from one of them.
+    private Set<String> trustedProxies = new LinkedHashSet<>();
+
+    // Upper bound of tracked clients, idle ones are dropped after clientIdleTimeout
+    private long maxClients = 100_000;
+
+    private Duration clientIdleTimeout = Duration.ofMinutes(5);
+
+    private Bucket client = new Bucket(50, 25);
+
+    // Default bucket of each endpoint (method + mapping pattern, e.g. "GET /users/{userId}")
+    private Bucket endpoint = new Bucket(1000, 500);
+
+    // Per endpoint overrides keyed like above, e.g. users.admission.endpoints[POST /users/batch]
+    private Map<String, Bucket> endpoints = new LinkedHashMap<>();
+
+    private Concurrency concurrency = new Concurrency();
+
+    public static class Bucket {
+
+        private long capacity;
+
+        private double refillPerSecond;
+
+        public Bucket() {
+        }
+
+        public Bucket(long capacity, double refillPerSecond) {
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+        }
+
+        public long getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(long capacity) {
+            this.capacity = capacity;
+        }
+
+        public double getRefillPerSecond() {
+            return refillPerSecond;
+        }
+
+        public void setRefillPerSecond(double refillPerSecond) {
+            this.refillPerSecond = refillPerSecond;
+        }
+    }
+
+    public static class Concurrency {
+
+        private int initialLimit = 20;
+
+        private int minLimit = 4;
+
+        // Keep at or below what the connection pool and Tomcat threads can actually serve
+        private int maxLimit = 200;
+
+        // Calls slower than this shrink the limit
+        private Duration latencyTarget = Duration.ofMillis(250);
+
+        private double backoffRatio = 0.9;
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public void setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+
+        public Duration getLatencyTarget() {
+            return latencyTarget;
+        }
+
+        public void setLatencyTarget(Duration latencyTarget) {
+            this.latencyTarget = latencyTarget;
+        }
+
+        public double getBackoffRatio() {
+            return backoffRatio;
+        }
+
+        public void setBackoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getClientHeader() {
+        return clientHeader;
+    }
+
+    public void setClientHeader(String clientHeader) {
+        this.clientHeader = clientHeader;
+    }
+
+    public Set<String> getTrustedProxies() {
+        return trustedProxies;
+    }
+
+    public void setTrustedProxies(Set<String> trustedProxies) {
+        this.trustedProxies = trustedProxies;
+    }
+
+    public long getMaxClients() {
+        return maxClients;
+    }
+
+    public void setMaxClients(long maxClients) {
+        this.maxClients = maxClients;
+    }
+
+    public Duration getClientIdleTimeout() {
+        return clientIdleTimeout;
+    }
+
+    public void setClientIdleTimeout(Duration clientIdleTimeout) {
+        this.clientIdleTimeout = clientIdleTimeout;
+    }
+
+    public Bucket getClient() {
+        return client;
+    }
+
+    public void setClient(Bucket client) {
+        this.client = client;
+    }
+
+    public Bucket getEndpoint() {
+        return endpoint;
+    }
+
+    public void setEndpoint(Bucket endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public Map<String, Bucket> getEndpoints() {
+        return endpoints;
+    }
+
+    public void setEndpoints(Map<String, Bucket> endpoints) {
+        this.endpoints = endpoints;
+    }
+
+    public Concurrency getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(Concurrency concurrency) {
+        this.concurrency = concurrency;
+    }
+}
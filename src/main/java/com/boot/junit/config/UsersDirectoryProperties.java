@@ -0,0 +1,30 @@
+package com.boot.junit.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "users.directory")
+public class UsersDirectoryProperties {
+
+    // Off-heap email -> (id, userId) directory in front of the email lookups, off by default
+    private boolean enabled = false;
+
+    // Sizes the initial slot table so the startup load does not grow it step by step. The directory is direct memory:
+    // size -XX:MaxDirectMemorySize for it (about 80 bytes per user), the default only matches -Xmx
+    private int expectedUsers = 100_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getExpectedUsers() {
+        return expectedUsers;
+    }
+
+    public void setExpectedUsers(int expectedUsers) {
+        this.expectedUsers = expectedUsers;
+    }
+}
@@ -0,0 +1,46 @@
+package com.boot.junit.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "users.execution")
+public class UsersExecutionProperties {
+
+    public enum Mode {
+        // every request holds a Tomcat thread for the whole JPA call
+        BLOCKING,
+        // /async/users endpoints hand the JPA call to the bounded usersTaskExecutor
+        ASYNC
+    }
+
+    private Mode mode = Mode.BLOCKING;
+
+    // Threads of usersTaskExecutor, all of them used before requests queue. Same as Tomcat's default max threads.
+    private int maxPoolSize = 200;
+
+    // Waiting room once every thread is busy; requests beyond the pool and queue are rejected with 503
+    private int queueCapacity = 1000;
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public int getMaxPoolSize() {
+        return maxPoolSize;
+    }
+
+    public void setMaxPoolSize(int maxPoolSize) {
+        this.maxPoolSize = maxPoolSize;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+}
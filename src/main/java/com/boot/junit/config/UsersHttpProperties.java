@@ -0,0 +1,76 @@
+package com.boot.junit.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// HTTP/2 connection tuning not covered by server.http2.* (only 'enabled' there).
+// Compression and HTTP/1.1 keep-alive stay on Boot's own server.compression.* / server.tomcat.keep-alive-*.
+@ConfigurationProperties(prefix = "users.http")
+public class UsersHttpProperties {
+
+    private Http2 http2 = new Http2();
+
+    public static class Http2 {
+
+        // Idle time before an HTTP/2 connection is closed, the h2 counterpart of server.tomcat.keep-alive-timeout
+        private Duration keepAliveTimeout = Duration.ofSeconds(20);
+
+        private Duration readTimeout = Duration.ofSeconds(5);
+
+        private Duration writeTimeout = Duration.ofSeconds(5);
+
+        private long maxConcurrentStreams = 100;
+
+        // Flow control window per stream, larger than the 64KB default so big pages are not stalled on WINDOW_UPDATEs
+        private int initialWindowSize = 1024 * 1024;
+
+        public Duration getKeepAliveTimeout() {
+            return keepAliveTimeout;
+        }
+
+        public void setKeepAliveTimeout(Duration keepAliveTimeout) {
+            this.keepAliveTimeout = keepAliveTimeout;
+        }
+
+        public Duration getReadTimeout() {
+            return readTimeout;
+        }
+
+        public void setReadTimeout(Duration readTimeout) {
+            this.readTimeout = readTimeout;
+        }
+
+        public Duration getWriteTimeout() {
+            return writeTimeout;
+        }
+
+        public void setWriteTimeout(Duration writeTimeout) {
+            this.writeTimeout = writeTimeout;
+        }
+
+        public long getMaxConcurrentStreams() {
+            return maxConcurrentStreams;
+        }
+
+        public void setMaxConcurrentStreams(long maxConcurrentStreams) {
+            this.maxConcurrentStreams = maxConcurrentStreams;
+        }
+
+        public int getInitialWindowSize() {
+            return initialWindowSize;
+        }
+
+        public void setInitialWindowSize(int initialWindowSize) {
+            this.initialWindowSize = initialWindowSize;
+        }
+    }
+
+    public Http2 getHttp2() {
+        return http2;
+    }
+
+    public void setHttp2(Http2 http2) {
+        this.http2 = http2;
+    }
+}
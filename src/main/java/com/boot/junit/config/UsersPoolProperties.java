@@ -0,0 +1,107 @@
+package com.boot.junit.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Connection pool knobs for the users DataSource. Unset values keep the Hikari / spring.datasource.hikari defaults.
+@ConfigurationProperties(prefix = UsersPoolProperties.PREFIX)
+public class UsersPoolProperties {
+
+    public static final String PREFIX = "users.datasource.pool";
+
+    private String poolName = "users-pool";
+
+    private Integer maximumPoolSize;
+
+    private Integer minimumIdle;
+
+    // How long a request may wait for a free connection before failing
+    private Duration connectionTimeout;
+
+    private Duration idleTimeout;
+
+    private Duration maxLifetime;
+
+    // Logs a stack trace when a connection is held longer than this, 0 disables it
+    private Duration leakDetectionThreshold;
+
+    // Per connection prepared statement / query plan cache, handed to the driver (H2 QUERY_CACHE_SIZE)
+    private Integer statementCacheSize;
+
+    void applyTo(HikariDataSource dataSource) {
+        dataSource.setPoolName(poolName);
+        if (maximumPoolSize != null) dataSource.setMaximumPoolSize(maximumPoolSize);
+        if (minimumIdle != null) dataSource.setMinimumIdle(minimumIdle);
+        if (connectionTimeout != null) dataSource.setConnectionTimeout(connectionTimeout.toMillis());
+        if (idleTimeout != null) dataSource.setIdleTimeout(idleTimeout.toMillis());
+        if (maxLifetime != null) dataSource.setMaxLifetime(maxLifetime.toMillis());
+        if (leakDetectionThreshold != null) dataSource.setLeakDetectionThreshold(leakDetectionThreshold.toMillis());
+        if (statementCacheSize != null) dataSource.addDataSourceProperty("QUERY_CACHE_SIZE", statementCacheSize);
+    }
+
+    public String getPoolName() {
+        return poolName;
+    }
+
+    public void setPoolName(String poolName) {
+        this.poolName = poolName;
+    }
+
+    public Integer getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+
+    public void setMaximumPoolSize(Integer maximumPoolSize) {
+        this.maximumPoolSize = maximumPoolSize;
+    }
+
+    public Integer getMinimumIdle() {
+        return minimumIdle;
+    }
+
+    public void setMinimumIdle(Integer minimumIdle) {
+        this.minimumIdle = minimumIdle;
+    }
+
+    public Duration getConnectionTimeout() {
+        return connectionTimeout;
+    }
+
+    public void setConnectionTimeout(Duration connectionTimeout) {
+        this.connectionTimeout = connectionTimeout;
+    }
+
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public Duration getMaxLifetime() {
+        return maxLifetime;
+    }
+
+    public void setMaxLifetime(Duration maxLifetime) {
+        this.maxLifetime = maxLifetime;
+    }
+
+    public Duration getLeakDetectionThreshold() {
+        return leakDetectionThreshold;
+    }
+
+    public void setLeakDetectionThreshold(Duration leakDetectionThreshold) {
+        this.leakDetectionThreshold = leakDetectionThreshold;
+    }
+
+    public Integer getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    public void setStatementCacheSize(Integer statementCacheSize) {
+        this.statementCacheSize = statementCacheSize;
+    }
+}
@@ -0,0 +1,132 @@
+package com.boot.junit.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Read replicas behind the users DataSource. spring.datasource.* stays the primary, users.datasource.pool.* sizes every pool.
+@ConfigurationProperties(prefix = "users.datasource.replicas")
+public class UsersReplicaProperties {
+
+    // Off by default, a single DataSource is used unless enabled
+    private boolean enabled = false;
+
+    private List<Replica> instances = new ArrayList<>();
+
+    // Replicas failing this probe are taken out of rotation until it succeeds again
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+    private Duration healthCheckTimeout = Duration.ofSeconds(1);
+
+    // Optional probe statement, e.g. one touching the users table so a replica without the schema stays out.
+    // Connection.isValid when unset.
+    private String healthCheckQuery;
+
+    // Read-your-writes: after a write a client's reads go to the primary for this long, carried in stickyCookie
+    private Duration stickiness = Duration.ofSeconds(5);
+
+    private String stickyCookie = "users-primary-until";
+
+    // HMAC key signing the sticky cookie, so clients can not pin themselves to the primary. Random per instance when
+    // unset; instances behind one load balancer need the same value for the pin to hold across them.
+    private String stickyCookieSecret;
+
+    public static class Replica {
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<Replica> getInstances() {
+        return instances;
+    }
+
+    public void setInstances(List<Replica> instances) {
+        this.instances = instances;
+    }
+
+    public Duration getHealthCheckInterval() {
+        return healthCheckInterval;
+    }
+
+    public void setHealthCheckInterval(Duration healthCheckInterval) {
+        this.healthCheckInterval = healthCheckInterval;
+    }
+
+    public Duration getHealthCheckTimeout() {
+        return healthCheckTimeout;
+    }
+
+    public void setHealthCheckTimeout(Duration healthCheckTimeout) {
+        this.healthCheckTimeout = healthCheckTimeout;
+    }
+
+    public String getHealthCheckQuery() {
+        return healthCheckQuery;
+    }
+
+    public void setHealthCheckQuery(String healthCheckQuery) {
+        this.healthCheckQuery = healthCheckQuery;
+    }
+
+    public Duration getStickiness() {
+        return stickiness;
+    }
+
+    public void setStickiness(Duration stickiness) {
+        this.stickiness = stickiness;
+    }
+
+    public String getStickyCookie() {
+        return stickyCookie;
+    }
+
+    public void setStickyCookie(String stickyCookie) {
+        this.stickyCookie = stickyCookie;
+    }
+
+    public String getStickyCookieSecret() {
+        return stickyCookieSecret;
+    }
+
+    public void setStickyCookieSecret(String stickyCookieSecret) {
+        this.stickyCookieSecret = stickyCookieSecret;
+    }
+}
@@ -0,0 +1,79 @@
+package com.boot.junit.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Users split over several databases by a hash of userId. spring.datasource.* holds the global email directory,
+// users.datasource.pool.* sizes every shard pool.
+@ConfigurationProperties(prefix = "users.datasource.shards")
+public class UsersShardingProperties {
+
+    // Off by default, everything lives in spring.datasource unless enabled
+    private boolean enabled = false;
+
+    // Order matters: a user's shard is its userId hash modulo the number of instances, changing the list needs a re-shard
+    private List<Shard> instances = new ArrayList<>();
+
+    // Deepest row a page + limit listing may reach. Every shard reads up to that many rows for one page,
+    // deeper requests are rejected in favour of the keyset (after) mode
+    private int maxPageOffset = 10000;
+
+    public static class Shard {
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxPageOffset() {
+        return maxPageOffset;
+    }
+
+    public void setMaxPageOffset(int maxPageOffset) {
+        this.maxPageOffset = maxPageOffset;
+    }
+
+    public List<Shard> getInstances() {
+        return instances;
+    }
+
+    public void setInstances(List<Shard> instances) {
+        this.instances = instances;
+    }
+}
@@ -0,0 +1,57 @@
+package com.boot.junit.controller;
+
+import com.boot.junit.model.UserRest;
+import com.boot.junit.service.AsyncUsersService;
+import com.boot.junit.shared.UserMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// Same reads as UsersController, registered when users.execution.mode=async.
+// The Tomcat thread is handed back as soon as the lookup is queued on usersTaskExecutor.
+@RestController
+@RequestMapping("/async/users")
+@ConditionalOnProperty(prefix = "users.execution", name = "mode", havingValue = "async")
+public class AsyncUsersController {
+
+    AsyncUsersService asyncUsersService;
+
+    @Autowired
+    public AsyncUsersController(AsyncUsersService asyncUsersService) {
+        this.asyncUsersService = asyncUsersService;
+    }
+
+    @GetMapping
+    public CompletableFuture<List<UserRest>> getUsers(@RequestParam(value = "page", defaultValue = "0") int page,
+                                                      @RequestParam(value = "limit", defaultValue = "2") int limit) {
+        PageParams.check(page, limit);
+
+        return asyncUsersService.getUsers(page, limit).thenApply(UserMapper::toRests);
+    }
+
+    @GetMapping(path = "/email")
+    public CompletableFuture<UserRest> getUser(@RequestParam(value = "emailName", required = true) String emailName) {
+        return asyncUsersService.getUser(emailName).thenApply(UserMapper::toRest);
+    }
+
+    @GetMapping(path = "/{userId}")
+    public CompletableFuture<UserRest> getUserByUserId(@PathVariable(value = "userId", required = true) String userId) {
+        return asyncUsersService.getUserByUserId(userId).thenApply(UserMapper::toRest);
+    }
+
+    @GetMapping(path = "/names/{lastName}")
+    public CompletableFuture<UserRest> getUserByLastName(@PathVariable(value = "lastName", required = true) String lastName) {
+        return asyncUsersService.getUserByLastName(lastName).thenApply(UserMapper::toRest);
+    }
+
+    // usersTaskExecutor pool and queue are full: shed the request instead of queueing it further
+    @ExceptionHandler(TaskRejectedException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public void handleRejected() {
+    }
+}
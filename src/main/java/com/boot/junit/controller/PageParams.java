@@ -0,0 +1,18 @@
+package com.boot.junit.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+// page / limit request params check shared by the blocking, async and reactive users controllers
+public final class PageParams {
+
+    private PageParams() {
+    }
+
+    // Pages are 1-based (0 is read as 1). The offset page * limit has to fit an int, PageRequest and the search index
+    // would otherwise throw or wrap around and the client would get a 500 instead of a 400.
+    public static void check(int page, int limit) {
+        if (page < 0 || limit < 1 || (long) page * limit > Integer.MAX_VALUE)
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "page must be >= 0, limit >= 1 and page * limit within range");
+    }
+}
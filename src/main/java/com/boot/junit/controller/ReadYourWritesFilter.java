@@ -0,0 +1,105 @@
+package com.boot.junit.controller;
+
+import com.boot.junit.config.ReadWriteRoutingDataSource;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+
+// Read-your-writes over replicas: a write request stamps a cookie valid for the stickiness window, and requests
+// carrying a live stamp (or writing) run pinned to the primary, so a client never reads past its own create.
+// The stamp is signed and clamped to the window, so a client can neither forge nor stretch its pin.
+// Only the request thread is pinned; /async/users reads on usersTaskExecutor are not.
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private static final String HMAC = "HmacSHA256";
+
+    private final String cookieName;
+    private final Duration stickiness;
+    private final SecretKeySpec key;
+
+    public ReadYourWritesFilter(String cookieName, Duration stickiness, byte[] secret) {
+        this.cookieName = cookieName;
+        this.stickiness = stickiness;
+        this.key = new SecretKeySpec(secret, HMAC);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        boolean write = isWrite(request);
+        if (write) {
+            String until = Long.toString(now + stickiness.toMillis());
+            Cookie cookie = new Cookie(cookieName, until + "." + sign(until));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, stickiness.getSeconds()));
+            response.addCookie(cookie);
+        }
+
+        if (!write && pinnedUntil(request, now) <= now) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        ReadWriteRoutingDataSource.pinToPrimary();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadWriteRoutingDataSource.unpin();
+        }
+    }
+
+    private static boolean isWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !HttpMethod.GET.matches(method) && !HttpMethod.HEAD.matches(method) && !HttpMethod.OPTIONS.matches(method);
+    }
+
+    // 0 (not pinned) for a missing, malformed or badly signed cookie
+    long pinnedUntil(HttpServletRequest request, long now) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) return 0;
+
+        for (Cookie cookie : cookies) {
+            if (!cookieName.equals(cookie.getName())) continue;
+
+            String value = cookie.getValue();
+            int separator = value.indexOf('.');
+            if (separator < 0) return 0;
+
+            String until = value.substring(0, separator);
+            byte[] signature = sign(until).getBytes(StandardCharsets.US_ASCII);
+            if (!MessageDigest.isEqual(signature, value.substring(separator + 1).getBytes(StandardCharsets.US_ASCII))) return 0;
+
+            try {
+                return Math.min(Long.parseLong(until), now + stickiness.toMillis());
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        return 0;
+    }
+
+    String sign(String value) {
+        try {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(key);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(mac.doFinal(value.getBytes(StandardCharsets.US_ASCII)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Can not sign the read-your-writes cookie", e);
+        }
+    }
+}
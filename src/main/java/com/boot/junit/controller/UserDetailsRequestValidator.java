@@ -0,0 +1,74 @@
+package com.boot.junit.controller;
+
+import com.boot.junit.model.UserDetailsRequestModel;
+import org.springframework.validation.Errors;
+import org.springframework.validation.Validator;
+
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+// Precompiled signup validation, replaces Bean Validation for UserDetailsRequestModel on the hot path.
+// Mirrors the @Size / @Email constraints on the model (same codes and messages, null passes) and adds the
+// password / repeatPassword equality check. Stateless, one instance is shared by all requests.
+public class UserDetailsRequestValidator implements Validator {
+
+    static final String FIRST_NAME_MESSAGE = "First name must not be less than 2 characters";
+    static final String LAST_NAME_MESSAGE = "Last name must not be less than 2 characters";
+    static final String EMAIL_MESSAGE = "must be a well-formed email address";
+    static final String PASSWORD_MESSAGE = "Password must be equal to or greater than 8 characters and less than 16 characters";
+    static final String REPEAT_PASSWORD_MESSAGE = "Repeat Password must be equal to or greater than 8 characters and less than 16 characters";
+    static final String PASSWORDS_MATCH_MESSAGE = "Passwords do not match";
+
+    // Same grammar as Hibernate Validator's EmailValidator, minus the IPv6 domain literal
+    private static final String LOCAL_PART_ATOM = "[a-z0-9!#$%&'*+/=?^_`{|}~\u0080-\uFFFF-]";
+    private static final String DOMAIN_CHAR = "[a-z\u0080-\uFFFF0-9!#$%&'*+/=?^_`{|}~]";
+    private static final String DOMAIN_LABEL = DOMAIN_CHAR + "(?:[a-z\u0080-\uFFFF0-9!#$%&'*+/=?^_`{|}~-]{0,61}" + DOMAIN_CHAR + ")?";
+    private static final Pattern LOCAL_PART = Pattern.compile(
+            LOCAL_PART_ATOM + "+(?:\\." + LOCAL_PART_ATOM + "+)*", Pattern.CASE_INSENSITIVE);
+    private static final Pattern DOMAIN = Pattern.compile(
+            DOMAIN_LABEL + "(?:\\." + DOMAIN_LABEL + ")*|\\[[0-9]{1,3}(?:\\.[0-9]{1,3}){3}]", Pattern.CASE_INSENSITIVE);
+    private static final int MAX_LOCAL_PART_LENGTH = 64;
+    private static final int MAX_DOMAIN_LENGTH = 255;
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return UserDetailsRequestModel.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        UserDetailsRequestModel userDetails = (UserDetailsRequestModel) target;
+
+        if (!hasSize(userDetails.getFirstName(), 2, Integer.MAX_VALUE))
+            errors.rejectValue("firstName", "Size", FIRST_NAME_MESSAGE);
+        if (!hasSize(userDetails.getLastName(), 2, Integer.MAX_VALUE))
+            errors.rejectValue("lastName", "Size", LAST_NAME_MESSAGE);
+        if (!isEmail(userDetails.getEmail()))
+            errors.rejectValue("email", "Email", EMAIL_MESSAGE);
+        if (!hasSize(userDetails.getPassword(), 8, 16))
+            errors.rejectValue("password", "Size", PASSWORD_MESSAGE);
+        if (!hasSize(userDetails.getRepeatPassword(), 8, 16))
+            errors.rejectValue("repeatPassword", "Size", REPEAT_PASSWORD_MESSAGE);
+        if (!Objects.equals(userDetails.getPassword(), userDetails.getRepeatPassword()))
+            errors.rejectValue("repeatPassword", "PasswordsMatch", PASSWORDS_MATCH_MESSAGE);
+    }
+
+    private static boolean hasSize(String value, int min, int max) {
+        return value == null || (value.length() >= min && value.length() <= max);
+    }
+
+    static boolean isEmail(String value) {
+        if (value == null || value.isEmpty()) return true;
+
+        int at = value.lastIndexOf('@');
+        if (at <= 0 || at == value.length() - 1) return false;
+
+        String localPart = value.substring(0, at);
+        String domain = value.substring(at + 1);
+        return localPart.length() <= MAX_LOCAL_PART_LENGTH
+                && domain.length() <= MAX_DOMAIN_LENGTH
+                && !domain.endsWith(".")
+                && LOCAL_PART.matcher(localPart).matches()
+                && DOMAIN.matcher(domain).matches();
+    }
+}
@@ -0,0 +1,115 @@
+package com.boot.junit.controller;
+
+import com.boot.junit.shared.UserDto;
+import com.boot.junit.shared.UserMapper;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+
+import java.io.BufferedWriter;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+// Writes exported users straight to the response stream, one row per user
+abstract class UserExportWriter implements Consumer<UserDto>, Flushable {
+
+    static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    static final MediaType CSV = MediaType.parseMediaType("text/csv");
+
+    static MediaType mediaType(String format) {
+        switch (format.toLowerCase(Locale.ROOT)) {
+            case "ndjson":
+                return NDJSON;
+            case "csv":
+                return CSV;
+            default:
+                throw new IllegalArgumentException("Unsupported export format " + format);
+        }
+    }
+
+    static UserExportWriter create(MediaType mediaType, OutputStream outputStream, ObjectMapper objectMapper) throws IOException {
+        return CSV.equals(mediaType) ? new Csv(outputStream) : new NdJson(outputStream, objectMapper);
+    }
+
+    @Override
+    public void accept(UserDto user) {
+        try {
+            write(user);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    abstract void write(UserDto user) throws IOException;
+
+    private static final class NdJson extends UserExportWriter {
+        private final JsonGenerator generator;
+        private boolean written;
+
+        NdJson(OutputStream outputStream, ObjectMapper objectMapper) throws IOException {
+            generator = objectMapper.getFactory().createGenerator(outputStream);
+            generator.setRootValueSeparator(new SerializedString("\n"));
+        }
+
+        @Override
+        void write(UserDto user) throws IOException {
+            generator.writeObject(UserMapper.toRest(user));
+            written = true;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (written) generator.writeRaw('\n');
+            generator.flush();
+        }
+    }
+
+    private static final class Csv extends UserExportWriter {
+        private final Writer writer;
+
+        Csv(OutputStream outputStream) throws IOException {
+            writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            writer.write("userId,firstName,lastName,email\n");
+        }
+
+        @Override
+        void write(UserDto user) throws IOException {
+            writeField(user.getUserId());
+            writer.write(',');
+            writeField(user.getFirstName());
+            writer.write(',');
+            writeField(user.getLastName());
+            writer.write(',');
+            writeField(user.getEmail());
+            writer.write('\n');
+        }
+
+        private void writeField(String value) throws IOException {
+            if (value == null) return;
+
+            // RFC 4180: a bare CR breaks the record as much as LF does
+            boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+    }
+}
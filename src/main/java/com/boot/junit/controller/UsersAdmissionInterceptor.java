@@ -0,0 +1,149 @@
+package com.boot.junit.controller;
+
+import com.boot.junit.config.UsersAdmissionProperties;
+import com.boot.junit.shared.AdaptiveConcurrencyLimit;
+import com.boot.junit.shared.TokenBucket;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Admission control in front of the users endpoints, checked before the request body is read:
+// per client token bucket -> 429, per endpoint token bucket -> 429, adaptive concurrency limit -> 503 + Retry-After.
+// Rejections are written directly (no error dispatch) so they stay cheap at saturation.
+// The concurrency permit is held until the request completes, including async (export, /async/users) dispatches.
+// Only requests finished on their initial dispatch feed the AIMD latency sample: an async request's lifetime is export
+// streaming to the client or a wait for usersTaskExecutor, not the service latency the limit is meant to track.
+public class UsersAdmissionInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = UsersAdmissionInterceptor.class.getName() + ".permit";
+    private static final String ASYNC_ATTRIBUTE = UsersAdmissionInterceptor.class.getName() + ".async";
+
+    private final UsersAdmissionProperties properties;
+    private final Cache<String, TokenBucket> clientBuckets;
+    private final ConcurrentHashMap<String, TokenBucket> endpointBuckets = new ConcurrentHashMap<>();
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+
+    private final Counter clientRejections;
+    private final Counter endpointRejections;
+    private final Counter concurrencyRejections;
+
+    public UsersAdmissionInterceptor(UsersAdmissionProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.clientBuckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxClients())
+                .expireAfterAccess(properties.getClientIdleTimeout())
+                .build();
+
+        UsersAdmissionProperties.Concurrency concurrency = properties.getConcurrency();
+        this.concurrencyLimit = new AdaptiveConcurrencyLimit(concurrency.getInitialLimit(), concurrency.getMinLimit(),
+                concurrency.getMaxLimit(), concurrency.getLatencyTarget().toNanos(), concurrency.getBackoffRatio());
+
+        this.clientRejections = rejections(meterRegistry, "client");
+        this.endpointRejections = rejections(meterRegistry, "endpoint");
+        this.concurrencyRejections = rejections(meterRegistry, "concurrency");
+        Gauge.builder("users.admission.limit", concurrencyLimit, AdaptiveConcurrencyLimit::getLimit)
+                .register(meterRegistry);
+        Gauge.builder("users.admission.in.flight", concurrencyLimit, AdaptiveConcurrencyLimit::getInFlight)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // async re-dispatch of a request that was already admitted
+        if (request.getAttribute(PERMIT_ATTRIBUTE) != null) return true;
+
+        if (!clientBucket(request).tryAcquire()) {
+            clientRejections.increment();
+            return reject(response, HttpStatus.TOO_MANY_REQUESTS);
+        }
+        if (!endpointBucket(request).tryAcquire()) {
+            endpointRejections.increment();
+            return reject(response, HttpStatus.TOO_MANY_REQUESTS);
+        }
+        if (!concurrencyLimit.tryAcquire()) {
+            concurrencyRejections.increment();
+            return reject(response, HttpStatus.SERVICE_UNAVAILABLE);
+        }
+
+        request.setAttribute(PERMIT_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    // Called instead of afterCompletion when the initial dispatch returns with the request still running
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) != null) request.setAttribute(ASYNC_ATTRIBUTE, Boolean.TRUE);
+    }
+
+    // Not called on the initial dispatch of an async request, only once its async dispatch completes
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Long admittedAt = (Long) request.getAttribute(PERMIT_ATTRIBUTE);
+        if (admittedAt == null) return;
+
+        request.removeAttribute(PERMIT_ATTRIBUTE);
+        if (request.getAttribute(ASYNC_ATTRIBUTE) != null) {
+            request.removeAttribute(ASYNC_ATTRIBUTE);
+            concurrencyLimit.release();
+        } else {
+            concurrencyLimit.release(System.nanoTime() - admittedAt);
+        }
+    }
+
+    private TokenBucket clientBucket(HttpServletRequest request) {
+        String client = clientKey(request, properties.getClientHeader(), properties.getTrustedProxies());
+
+        UsersAdmissionProperties.Bucket bucket = properties.getClient();
+        return clientBuckets.get(client, key -> new TokenBucket(bucket.getCapacity(), bucket.getRefillPerSecond()));
+    }
+
+    // Every proxy appends the address it received the request from, so only the entries our own proxies added can be
+    // trusted: walk the list from the right past them. The leftmost entry is whatever the client chose to send.
+    static String clientKey(HttpServletRequest request, String clientHeader, Set<String> trustedProxies) {
+        String remoteAddress = request.getRemoteAddr();
+        if (clientHeader == null) return remoteAddress;
+        if (!trustedProxies.isEmpty() && !trustedProxies.contains(remoteAddress)) return remoteAddress;
+
+        String header = request.getHeader(clientHeader);
+        if (header == null) return remoteAddress;
+
+        String[] hops = header.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (!hop.isEmpty() && !trustedProxies.contains(hop)) return hop;
+        }
+        return remoteAddress;
+    }
+
+    private TokenBucket endpointBucket(HttpServletRequest request) {
+        String endpoint = request.getMethod() + " " + request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+
+        return endpointBuckets.computeIfAbsent(endpoint, key -> {
+            UsersAdmissionProperties.Bucket bucket = properties.getEndpoints().getOrDefault(key, properties.getEndpoint());
+            return new TokenBucket(bucket.getCapacity(), bucket.getRefillPerSecond());
+        });
+    }
+
+    private static boolean reject(HttpServletResponse response, HttpStatus status) {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        return false;
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("users.admission.rejected")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
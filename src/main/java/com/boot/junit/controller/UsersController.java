@@ -1,63 +1,254 @@
 package com.boot.junit.controller;
 
+import com.boot.junit.model.UserBatchItemRest;
 import com.boot.junit.model.UserDetailsRequestModel;
+import com.boot.junit.model.UserPageRest;
 import com.boot.junit.model.UserRest;
 import com.boot.junit.service.UsersService;
+import com.boot.junit.shared.UserBatchResult;
+import com.boot.junit.shared.UserCursor;
 import com.boot.junit.shared.UserDto;
-import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeToken;
+import com.boot.junit.shared.UserMapper;
+import com.boot.junit.shared.UserVersion;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
-import java.lang.reflect.Type;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
+// Servlet stack, replaced by ReactiveUsersController (src/reactive/java) under the reactive profile
 @RestController
 @RequestMapping("/users")
+@Profile("!reactive")
 public class UsersController {
 
+    private static final Logger log = LoggerFactory.getLogger(UsersController.class);
+
+    // Users handed to the service per transaction by the batch endpoints
+    private static final int BATCH_CHUNK_SIZE = 500;
+
     UsersService usersService;
+    ObjectMapper objectMapper;
+    UserDetailsRequestValidator userDetailsValidator = new UserDetailsRequestValidator();
 
     @Autowired
-    public UsersController(UsersService usersService) {
+    public UsersController(UsersService usersService, ObjectMapper objectMapper) {
         this.usersService = usersService;
+        this.objectMapper = objectMapper;
+    }
+
+    // @Valid UserDetailsRequestModel bodies go through the precompiled validator instead of Bean Validation
+    @InitBinder("userDetailsRequestModel")
+    void initUserDetailsBinder(WebDataBinder binder) {
+        binder.setValidator(userDetailsValidator);
     }
 
     @PostMapping
     public UserRest createUser(@RequestBody @Valid UserDetailsRequestModel userDetails) throws Exception {
-        ModelMapper modelMapper = new ModelMapper();
-        UserDto userDto = new ModelMapper().map(userDetails, UserDto.class);
+        UserDto userDto = UserMapper.toDto(userDetails);
 
         UserDto createdUser = usersService.createUser(userDto);
 
-        return modelMapper.map(createdUser, UserRest.class);
+        return UserMapper.toRest(createdUser);
+    }
+
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public List<UserBatchItemRest> createUsers(@RequestBody List<UserDetailsRequestModel> usersDetails) {
+        return createUsers(usersDetails.iterator());
+    }
+
+    // Same as above but reads one JSON user per line, so the request body is never held in memory as a whole
+    @PostMapping(path = "/batch", consumes = "application/x-ndjson")
+    public List<UserBatchItemRest> createUsers(InputStream usersDetails) throws IOException {
+        try (MappingIterator<UserDetailsRequestModel> iterator = objectMapper.readerFor(UserDetailsRequestModel.class)
+                .readValues(usersDetails)) {
+            return createUsers(iterator);
+        }
+    }
+
+    private List<UserBatchItemRest> createUsers(Iterator<UserDetailsRequestModel> usersDetails) {
+        List<UserBatchItemRest> returnValue = new ArrayList<>();
+        List<UserDto> chunk = new ArrayList<>(BATCH_CHUNK_SIZE);
+        List<Integer> chunkIndexes = new ArrayList<>(BATCH_CHUNK_SIZE);
+
+        int index = 0;
+        while (usersDetails.hasNext()) {
+            UserDetailsRequestModel userDetails = usersDetails.next();
+            Errors errors = new BeanPropertyBindingResult(userDetails, "userDetailsRequestModel");
+            userDetailsValidator.validate(userDetails, errors);
+            if (errors.hasFieldErrors()) {
+                FieldError error = errors.getFieldError();
+                returnValue.add(UserMapper.toRest(index++, UserBatchResult.invalid(error.getField() + " " + error.getDefaultMessage())));
+                continue;
+            }
+
+            chunk.add(UserMapper.toDto(userDetails));
+            chunkIndexes.add(index++);
+            returnValue.add(null);
+            if (chunk.size() == BATCH_CHUNK_SIZE) {
+                createChunk(chunk, chunkIndexes, returnValue);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            createChunk(chunk, chunkIndexes, returnValue);
+        }
+
+        return returnValue;
+    }
+
+    private void createChunk(List<UserDto> chunk, List<Integer> chunkIndexes, List<UserBatchItemRest> returnValue) {
+        List<UserBatchResult> results = usersService.createUsers(chunk);
+        for (int i = 0; i < results.size(); i++) {
+            int index = chunkIndexes.get(i);
+            returnValue.set(index, UserMapper.toRest(index, results.get(i)));
+        }
+        chunk.clear();
+        chunkIndexes.clear();
     }
 
     @GetMapping
     public List<UserRest> getUsers(@RequestParam(value = "page", defaultValue = "0") int page,
                                    @RequestParam(value = "limit", defaultValue = "2") int limit) {
-        List<UserDto> users = usersService.getUsers(page, limit);
+        PageParams.check(page, limit);
 
-        Type listType = new TypeToken<List<UserRest>>() {
-        }.getType();
+        List<UserDto> users;
+        try {
+            users = usersService.getUsers(page, limit);
+        } catch (IllegalArgumentException e) {
+            // page past what the service will read, e.g. the sharded listing's max-page-offset
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
 
-        return new ModelMapper().map(users, listType);
+        return UserMapper.toRests(users);
+    }
+
+    // Keyset mode, selected when the 'after' param is present. Pass an empty cursor for the first page.
+    @GetMapping(params = "after")
+    public UserPageRest getUsersAfter(@RequestParam(value = "after") String after,
+                                      @RequestParam(value = "limit", defaultValue = "2") int limit) {
+        long afterId;
+        try {
+            afterId = UserCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor", e);
+        }
+        PageParams.check(0, limit);
+
+        List<UserDto> users = usersService.getUsersAfter(afterId, limit);
+
+        UserPageRest returnValue = new UserPageRest();
+        returnValue.setUsers(UserMapper.toRests(users));
+        // >= : the sharded listing keeps rows tied on the last id together and can return more than limit
+        if (users.size() >= limit)
+            returnValue.setNextCursor(UserCursor.encode(users.get(users.size() - 1).getId()));
+
+        return returnValue;
+    }
+
+    // Streams every user in one pass as NDJSON (default) or CSV, rows are written as they are read
+    @GetMapping(path = "/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(value = "format", defaultValue = "ndjson") String format) {
+        MediaType mediaType;
+        try {
+            mediaType = UserExportWriter.mediaType(format);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            UserExportWriter writer = UserExportWriter.create(mediaType, outputStream, objectMapper);
+            usersService.exportUsers(writer);
+            writer.flush();
+        };
+
+        return ResponseEntity.ok().contentType(mediaType).body(body);
+    }
+
+    @GetMapping(path = "/search")
+    public List<UserRest> searchUsers(@RequestParam(value = "q") String query,
+                                      @RequestParam(value = "page", defaultValue = "0") int page,
+                                      @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        PageParams.check(page, limit);
+
+        List<UserDto> users = usersService.searchUsers(query, page, limit);
+
+        return UserMapper.toRests(users);
     }
 
     @GetMapping(path = "/email")
-    public UserRest getUser(@RequestParam(value = "emailName", required = true) String emailName) {
-        System.out.println("EmailName : " + emailName);
+    public ResponseEntity<UserRest> getUser(@RequestParam(value = "emailName", required = true) String emailName,
+                                            WebRequest webRequest) {
+        log.debug("EmailName : {}", emailName);
+        if (isConditional(webRequest) && isNotModified(webRequest, usersService.getUserVersion(emailName)))
+            return null;
+
         UserDto returnedUser = usersService.getUser(emailName);
 
-        return new ModelMapper().map(returnedUser, UserRest.class);
+        return withETag(returnedUser);
+    }
+
+    // Authentication path: only the userId, which the user directory answers without a database call when enabled
+    @GetMapping(path = "/email/userId", produces = MediaType.TEXT_PLAIN_VALUE)
+    public String getUserIdByEmail(@RequestParam(value = "emailName", required = true) String emailName) {
+        return usersService.getUserIdByEmail(emailName);
+    }
+
+    @GetMapping(path = "/{userId}")
+    public ResponseEntity<UserRest> getUserByUserId(@PathVariable(value = "userId", required = true) String userId,
+                                                    WebRequest webRequest) {
+        if (isConditional(webRequest) && isNotModified(webRequest, usersService.getUserVersionByUserId(userId)))
+            return null;
+
+        UserDto returnedUser = usersService.getUserByUserId(userId);
+
+        return withETag(returnedUser);
     }
 
     @GetMapping(path = "/names/{lastName}")
     public UserRest getUserByEmail(@PathVariable(value = "lastName", required = true) String lastName) {
-        System.out.println("lastName : " + lastName);
+        log.debug("lastName : {}", lastName);
         UserDto returnedUser = usersService.getUserByLastName(lastName);
 
-        return new ModelMapper().map(returnedUser, UserRest.class);
+        return UserMapper.toRest(returnedUser);
+    }
+
+    // ETag of a single user representation, changes whenever the row's version is bumped
+    static String eTag(String userId, long version) {
+        return "\"" + userId + "-" + version + "\"";
+    }
+
+    private static boolean isConditional(WebRequest webRequest) {
+        return webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null;
+    }
+
+    // Answers If-None-Match from the version probe alone; checkNotModified sets the 304 status and ETag header
+    private static boolean isNotModified(WebRequest webRequest, UserVersion version) {
+        return version != null && webRequest.checkNotModified(eTag(version.getUserId(), version.getVersion()));
+    }
+
+    private static ResponseEntity<UserRest> withETag(UserDto user) {
+        return ResponseEntity.ok()
+                .eTag(eTag(user.getUserId(), user.getVersion()))
+                .body(UserMapper.toRest(user));
     }
 }
@@ -0,0 +1,43 @@
+package com.boot.junit.model;
+
+import lombok.ToString;
+
+@ToString
+public class UserBatchItemRest {
+    private int index;
+    private String status;
+    private UserRest user;
+    private String message;
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public UserRest getUser() {
+        return user;
+    }
+
+    public void setUser(UserRest user) {
+        this.user = user;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
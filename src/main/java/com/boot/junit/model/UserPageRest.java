@@ -0,0 +1,27 @@
+package com.boot.junit.model;
+
+import lombok.ToString;
+
+import java.util.List;
+
+@ToString
+public class UserPageRest {
+    private List<UserRest> users;
+    private String nextCursor;
+
+    public List<UserRest> getUsers() {
+        return users;
+    }
+
+    public void setUsers(List<UserRest> users) {
+        this.users = users;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
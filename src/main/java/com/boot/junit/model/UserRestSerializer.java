@@ -0,0 +1,57 @@
+package com.boot.junit.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+
+// Hand written UserRest writer: streams the 4 fields straight to the generator with pre-encoded names,
+// skipping the reflective BeanSerializer. List<UserRest> pages reuse it through Jackson's collection serializer.
+// Output is identical to the default serialization: declaration order, and null / empty fields written or left out
+// as the mapper's property inclusion (spring.jackson.default-property-inclusion) says.
+// UserRestSerializationBenchmark only shows it ahead on small pages; allocation per page is the same as the default.
+@JsonComponent
+public class UserRestSerializer extends StdSerializer<UserRest> {
+
+    private static final SerializableString USER_ID = new SerializedString("userId");
+    private static final SerializableString FIRST_NAME = new SerializedString("firstName");
+    private static final SerializableString LAST_NAME = new SerializedString("lastName");
+    private static final SerializableString EMAIL = new SerializedString("email");
+
+    public UserRestSerializer() {
+        super(UserRest.class);
+    }
+
+    @Override
+    public void serialize(UserRest user, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        JsonInclude.Include inclusion = provider.getConfig().getDefaultPropertyInclusion(UserRest.class).getValueInclusion();
+
+        generator.writeStartObject(user);
+        writeField(generator, inclusion, USER_ID, user.getUserId());
+        writeField(generator, inclusion, FIRST_NAME, user.getFirstName());
+        writeField(generator, inclusion, LAST_NAME, user.getLastName());
+        writeField(generator, inclusion, EMAIL, user.getEmail());
+        generator.writeEndObject();
+    }
+
+    private static void writeField(JsonGenerator generator, JsonInclude.Include inclusion, SerializableString name,
+                                   String value) throws IOException {
+        if (value == null) {
+            if (inclusion != JsonInclude.Include.ALWAYS && inclusion != JsonInclude.Include.USE_DEFAULTS) return;
+
+            generator.writeFieldName(name);
+            generator.writeNull();
+            return;
+        }
+        // for Strings both NON_EMPTY and a global NON_DEFAULT also drop ""
+        if (value.isEmpty() && (inclusion == JsonInclude.Include.NON_EMPTY || inclusion == JsonInclude.Include.NON_DEFAULT)) return;
+
+        generator.writeFieldName(name);
+        generator.writeString(value);
+    }
+}
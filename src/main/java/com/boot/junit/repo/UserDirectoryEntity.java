@@ -0,0 +1,68 @@
+package com.boot.junit.repo;
+
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.*;
+import java.io.Serializable;
+
+// Global email -> userId entry, only written to the directory database when users are sharded.
+// The unique email column is what keeps emails unique across shards.
+// The userId is assigned, so Persistable tells save() a claim is new: persist straight away instead of a merge's SELECT.
+@Entity
+@Table(name = "user_directory", uniqueConstraints = @UniqueConstraint(name = UserDirectoryEntity.EMAIL_UNIQUE, columnNames = "email"))
+public class UserDirectoryEntity implements Persistable<String>, Serializable {
+
+    private static final long serialVersionUID = 3921180617408812517L;
+
+    public static final String EMAIL_UNIQUE = "uk_user_directory_email";
+
+    @Id
+    @Column(length = 36)
+    private String userId;
+
+    @Column(nullable = false, length = 120)
+    private String email;
+
+    @Transient
+    private boolean stored;
+
+    public UserDirectoryEntity() {
+    }
+
+    public UserDirectoryEntity(String userId, String email) {
+        this.userId = userId;
+        this.email = email;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markStored() {
+        stored = true;
+    }
+
+    @Override
+    public String getId() {
+        return userId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !stored;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+}
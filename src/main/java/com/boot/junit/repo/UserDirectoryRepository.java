@@ -0,0 +1,23 @@
+package com.boot.junit.repo;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
+public interface UserDirectoryRepository extends JpaRepository<UserDirectoryEntity, String> {
+
+    // Entries never change once written, so the query cache can serve repeated lookups
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query("select entry.userId from UserDirectoryEntity entry where entry.email = :email")
+    String findUserIdByEmail(@Param("email") String email);
+
+    @Query("select entry.email from UserDirectoryEntity entry where entry.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+}
@@ -1,17 +1,33 @@
 package com.boot.junit.repo;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.*;
 import java.io.Serializable;
 
 
 @Entity
-@Table(name = "users")
+@Cacheable
+// region name without dots: the JCache config looks it up as a HOCON path (see application.conf)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = UserEntity.CACHE_REGION)
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_last_name", columnList = "lastName"),
+        @Index(name = "idx_users_email_reversed", columnList = "emailReversed")
+}, uniqueConstraints = @UniqueConstraint(name = UserEntity.EMAIL_UNIQUE, columnNames = "email"))
 public class UserEntity implements Serializable {
 
     private static final long serialVersionUID = 5313493413859894403L;
 
+    // named, so a violation can be told apart from the other constraints on users (see ConstraintViolations)
+    public static final String EMAIL_UNIQUE = "uk_users_email";
+
+    public static final String CACHE_REGION = "users";
+
+    // pooled sequence: one sequence round-trip hands out 50 ids, which also lets inserts be JDBC batched
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private long id;
 
     @Column(nullable=false, unique=true)
@@ -23,9 +39,21 @@ public class UserEntity implements Serializable {
     @Column(nullable = false, length = 50)
     private String lastName;
 
-    @Column(nullable=false, length=120, unique = true)
+    @Column(nullable=false, length=120)
     private String email;
 
+    // email spelled backwards, so "ends with @domain" becomes an indexable "starts with niamod@" range scan
+    @Column(nullable=false, length=120)
+    private String emailReversed;
+
+    // optimistic lock version, also the basis of the ETag served for this user
+    @Version
+    private long version;
+
+    public static String reverse(String value) {
+        return value == null ? null : new StringBuilder(value).reverse().toString();
+    }
+
     public long getId() {
         return id;
     }
@@ -64,6 +92,19 @@ public class UserEntity implements Serializable {
 
     public void setEmail(String email) {
         this.email = email;
+        this.emailReversed = reverse(email);
+    }
+
+    public String getEmailReversed() {
+        return emailReversed;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
     }
 
 }
@@ -0,0 +1,15 @@
+package com.boot.junit.repo;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface UserOutboxRepository extends JpaRepository<UserOutboxEntity, Long> {
+
+    // Oldest due events first, in dispatch sized pages
+    @Query("select event from UserOutboxEntity event where event.nextAttemptAt <= :now order by event.id")
+    List<UserOutboxEntity> findDue(@Param("now") long now, Pageable pageable);
+}
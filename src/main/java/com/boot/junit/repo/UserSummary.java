@@ -0,0 +1,39 @@
+package com.boot.junit.repo;
+
+// Read-only row for listings, filled by a JPQL constructor expression so no UserEntity is hydrated or managed
+public class UserSummary {
+
+    private final long id;
+    private final String userId;
+    private final String firstName;
+    private final String lastName;
+    private final String email;
+
+    public UserSummary(long id, String userId, String firstName, String lastName, String email) {
+        this.id = id;
+        this.userId = userId;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+}
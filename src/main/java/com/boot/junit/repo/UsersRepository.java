@@ -1,21 +1,69 @@
 package com.boot.junit.repo;
 
+import com.boot.junit.shared.UserVersion;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface UsersRepository extends PagingAndSortingRepository<UserEntity, Long> {
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+public interface UsersRepository extends JpaRepository<UserEntity, Long> {
+    // Single user finders go through the Hibernate query cache, the entities themselves come from the second-level cache
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     UserEntity findByEmail(String email);
 
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     UserEntity findByLastName(String lastName);
 
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     UserEntity findByUserId(String userId);
 
-    // Does the same as @Query method below
-    List<UserEntity> findByEmailEndsWith(String email);
+    // Conditional GET support: reads only the identity and version columns, never the whole user
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query("select new com.boot.junit.shared.UserVersion(user.userId, user.version) from UserEntity user where user.email = :email")
+    UserVersion findVersionByEmail(@Param("email") String email);
+
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query("select new com.boot.junit.shared.UserVersion(user.userId, user.version) from UserEntity user where user.userId = :userId")
+    UserVersion findVersionByUserId(@Param("userId") String userId);
+
+    // Set based existence check for bulk create, one query per batch instead of one per user
+    @Query("select user.email from UserEntity user where user.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // Listing reads project straight into UserSummary. A List return type skips the COUNT query of a Page.
+    @Query("select new com.boot.junit.repo.UserSummary(user.id, user.userId, user.firstName, user.lastName, user.email)"
+            + " from UserEntity user order by user.id")
+    List<UserSummary> findSummaries(Pageable pageable);
+
+    // Keyset page: seeks past the last seen id instead of OFFSET, pageable only carries the limit
+    @Query("select new com.boot.junit.repo.UserSummary(user.id, user.userId, user.firstName, user.lastName, user.email)"
+            + " from UserEntity user where user.id > :afterId order by user.id")
+    List<UserSummary> findSummariesAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    // Forward-only scan for bulk export. Must be consumed inside a transaction and closed by the caller
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.boot.junit.repo.UserSummary(user.id, user.userId, user.firstName, user.lastName, user.email)"
+            + " from UserEntity user order by user.id")
+    Stream<UserSummary> streamSummaries();
+
+    List<UserEntity> findByEmailReversedStartingWith(String emailReversedPrefix);
+
+    // Suffix searches go through the indexed emailReversed column, a leading wildcard on email can not use an index
+    default List<UserEntity> findByEmailEndsWith(String email) {
+        return findByEmailReversedStartingWith(UserEntity.reverse(email));
+    }
 
-    @Query("select user from UserEntity user where user.email like %:emailDomain")
-    List<UserEntity> findUsersWithEmailEndingWith(@Param("emailDomain") String emailDomain);
+    // Does the same as method above
+    default List<UserEntity> findUsersWithEmailEndingWith(String emailDomain) {
+        return findByEmailReversedStartingWith(UserEntity.reverse(emailDomain));
+    }
 }
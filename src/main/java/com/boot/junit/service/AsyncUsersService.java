@@ -0,0 +1,43 @@
+package com.boot.junit.service;
+
+import com.boot.junit.config.AsyncExecutionConfig;
+import com.boot.junit.shared.UserDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// Runs UsersService reads on the bounded usersTaskExecutor so the calling request thread is released while JPA blocks
+@Service
+@ConditionalOnProperty(prefix = "users.execution", name = "mode", havingValue = "async")
+public class AsyncUsersService {
+    private UsersService usersService;
+
+    @Autowired
+    public AsyncUsersService(UsersService usersService) {
+        this.usersService = usersService;
+    }
+
+    @Async(AsyncExecutionConfig.USERS_TASK_EXECUTOR)
+    public CompletableFuture<List<UserDto>> getUsers(int page, int limit) {
+        return CompletableFuture.completedFuture(usersService.getUsers(page, limit));
+    }
+
+    @Async(AsyncExecutionConfig.USERS_TASK_EXECUTOR)
+    public CompletableFuture<UserDto> getUser(String email) {
+        return CompletableFuture.completedFuture(usersService.getUser(email));
+    }
+
+    @Async(AsyncExecutionConfig.USERS_TASK_EXECUTOR)
+    public CompletableFuture<UserDto> getUserByUserId(String userId) {
+        return CompletableFuture.completedFuture(usersService.getUserByUserId(userId));
+    }
+
+    @Async(AsyncExecutionConfig.USERS_TASK_EXECUTOR)
+    public CompletableFuture<UserDto> getUserByLastName(String lastName) {
+        return CompletableFuture.completedFuture(usersService.getUserByLastName(lastName));
+    }
+}
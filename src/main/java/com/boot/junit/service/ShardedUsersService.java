@@ -0,0 +1,335 @@
+package com.boot.junit.service;
+
+import com.boot.junit.config.UserShardRouter;
+import com.boot.junit.config.UsersPoolProperties;
+import com.boot.junit.config.UsersShardingProperties;
+import com.boot.junit.exceptions.UsersServiceException;
+import com.boot.junit.repo.UserDirectoryEntity;
+import com.boot.junit.repo.UserDirectoryRepository;
+import com.boot.junit.shared.ConstraintViolations;
+import com.boot.junit.shared.UserBatchResult;
+import com.boot.junit.shared.UserDto;
+import com.boot.junit.shared.UserKeyDirectory;
+import com.boot.junit.shared.UserVersion;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// Routes UsersService calls to the shard owning the userId and runs them through UsersServiceImpl there, so caching,
+// metrics and events stay as they are. Emails resolve through the in-process UserKeyDirectory when enabled, the directory
+// database otherwise: one directory probe, then one shard.
+// Listings fan out to every shard in parallel and merge by id; ids come from per-shard sequences, userId breaks ties.
+@Service
+@Primary
+@ConditionalOnProperty(prefix = "users.datasource.shards", name = "enabled", havingValue = "true")
+public class ShardedUsersService implements UsersService {
+
+    private static final Comparator<UserDto> MERGE_ORDER = Comparator.comparingLong(UserDto::getId)
+            .thenComparing(UserDto::getUserId);
+
+    private UsersService shardService;
+    private UserShardRouter router;
+    private UserDirectoryRepository directoryRepository;
+    private UserSearchIndex userSearchIndex;
+    private UserKeyDirectory userKeyDirectory;
+    private int maxPageOffset;
+
+    private final ExecutorService scatter;
+
+    // Shared by all listing requests. A shard read holds one of its pool's connections, so more threads than
+    // shards x pool size would only queue on the pools instead of in front of them.
+    @Autowired
+    public ShardedUsersService(@Qualifier("usersService") UsersService shardService, UserShardRouter router,
+                               UserDirectoryRepository directoryRepository, UserSearchIndex userSearchIndex,
+                               ObjectProvider<UserKeyDirectory> userKeyDirectory, UsersShardingProperties shardingProperties,
+                               UsersPoolProperties poolProperties) {
+        this.shardService = shardService;
+        this.router = router;
+        this.directoryRepository = directoryRepository;
+        this.userSearchIndex = userSearchIndex;
+        this.userKeyDirectory = userKeyDirectory.getIfAvailable();
+        this.maxPageOffset = shardingProperties.getMaxPageOffset();
+        // unset means Hikari's default of 10
+        int connectionsPerShard = poolProperties.getMaximumPoolSize() != null ? poolProperties.getMaximumPoolSize() : 10;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.scatter = Executors.newFixedThreadPool(router.getShards().size() * connectionsPerShard, runnable -> {
+            Thread thread = new Thread(runnable, "users-shard-scatter-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // UserSearchIndex rebuilds from the directory database, which holds no users; feed it from the shards instead
+    @EventListener(ApplicationReadyEvent.class)
+    public void indexShards() {
+        for (String shard : router.getShards()) {
+            router.onShard(shard, () -> shardService.exportUsers(userSearchIndex::add));
+        }
+    }
+
+    // The directory entry claims the email first, the unique index rejects it when taken on any shard.
+    // A failed shard write releases the claim again.
+    @Override
+    public UserDto createUser(UserDto user) {
+        String userId = UUID.randomUUID().toString();
+        try {
+            directoryRepository.saveAndFlush(new UserDirectoryEntity(userId, user.getEmail()));
+        } catch (DataIntegrityViolationException e) {
+            if (!ConstraintViolations.isUniqueViolation(e, UserDirectoryEntity.EMAIL_UNIQUE)) throw e;
+            throw new UsersServiceException("Record already exists");
+        }
+
+        user.setUserId(userId);
+        try {
+            return router.onShard(router.shardFor(userId), () -> shardService.createUser(user));
+        } catch (RuntimeException e) {
+            directoryRepository.deleteById(userId);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<UserBatchResult> createUsers(List<UserDto> users) {
+        Set<String> emails = new HashSet<>(users.size() * 2);
+        for (UserDto user : users) {
+            emails.add(user.getEmail());
+        }
+        Set<String> takenEmails = emails.isEmpty() ? new HashSet<>() : new HashSet<>(directoryRepository.findExistingEmails(emails));
+
+        List<UserBatchResult> returnValue = new ArrayList<>(users.size());
+        List<UserDirectoryEntity> claims = new ArrayList<>(users.size());
+        List<Integer> claimSlots = new ArrayList<>(users.size());
+        for (UserDto user : users) {
+            if (!takenEmails.add(user.getEmail())) {
+                returnValue.add(UserBatchResult.duplicate(user));
+                continue;
+            }
+            String userId = UUID.randomUUID().toString();
+            user.setUserId(userId);
+            claims.add(new UserDirectoryEntity(userId, user.getEmail()));
+            claimSlots.add(returnValue.size());
+            returnValue.add(null);
+        }
+
+        Set<String> lostClaims = claimEmails(claims);
+
+        Map<String, List<UserDto>> usersByShard = new LinkedHashMap<>();
+        Map<String, List<Integer>> slotsByShard = new LinkedHashMap<>();
+        for (int slot : claimSlots) {
+            UserDto user = users.get(slot);
+            if (lostClaims.contains(user.getUserId())) {
+                returnValue.set(slot, UserBatchResult.duplicate(user));
+                continue;
+            }
+            String shard = router.shardFor(user.getUserId());
+            usersByShard.computeIfAbsent(shard, key -> new ArrayList<>()).add(user);
+            slotsByShard.computeIfAbsent(shard, key -> new ArrayList<>()).add(slot);
+        }
+
+        // Shards commit one after the other; whatever did not end up CREATED gives its claim back, also when a shard throws
+        Set<String> createdUserIds = new HashSet<>(claims.size() * 2);
+        try {
+            for (Map.Entry<String, List<UserDto>> shardUsers : usersByShard.entrySet()) {
+                List<UserBatchResult> shardResults = router.onShard(shardUsers.getKey(), () -> shardService.createUsers(shardUsers.getValue()));
+                List<Integer> slots = slotsByShard.get(shardUsers.getKey());
+                for (int i = 0; i < slots.size(); i++) {
+                    UserBatchResult result = shardResults.get(i);
+                    returnValue.set(slots.get(i), result);
+                    if (result.getStatus() == UserBatchResult.Status.CREATED) createdUserIds.add(shardUsers.getValue().get(i).getUserId());
+                }
+            }
+        } catch (RuntimeException e) {
+            releaseClaims(claims, createdUserIds);
+            throw e;
+        }
+        releaseClaims(claims, createdUserIds);
+
+        return returnValue;
+    }
+
+    // One write for the whole batch. An email claimed concurrently since findExistingEmails fails it as a whole, the
+    // claims are then written one by one and the userIds of the lost ones returned, to be reported as duplicates.
+    private Set<String> claimEmails(List<UserDirectoryEntity> claims) {
+        try {
+            directoryRepository.saveAll(claims);
+            return Collections.emptySet();
+        } catch (DataIntegrityViolationException e) {
+            if (!ConstraintViolations.isUniqueViolation(e, UserDirectoryEntity.EMAIL_UNIQUE)) throw e;
+        }
+
+        Set<String> lostClaims = new HashSet<>();
+        Set<String> claimedUserIds = new HashSet<>(claims.size() * 2);
+        try {
+            for (UserDirectoryEntity claim : claims) {
+                // fresh entity, the failed batch may have marked this one as stored
+                try {
+                    directoryRepository.save(new UserDirectoryEntity(claim.getUserId(), claim.getEmail()));
+                    claimedUserIds.add(claim.getUserId());
+                } catch (DataIntegrityViolationException e) {
+                    if (!ConstraintViolations.isUniqueViolation(e, UserDirectoryEntity.EMAIL_UNIQUE)) throw e;
+                    lostClaims.add(claim.getUserId());
+                }
+            }
+        } catch (RuntimeException e) {
+            if (!claimedUserIds.isEmpty()) directoryRepository.deleteAllByIdInBatch(claimedUserIds);
+            throw e;
+        }
+        return lostClaims;
+    }
+
+    private void releaseClaims(List<UserDirectoryEntity> claims, Set<String> createdUserIds) {
+        List<String> unused = new ArrayList<>();
+        for (UserDirectoryEntity claim : claims) {
+            if (!createdUserIds.contains(claim.getUserId())) unused.add(claim.getUserId());
+        }
+        if (!unused.isEmpty()) directoryRepository.deleteAllByIdInBatch(unused);
+    }
+
+    // Page n of the merged order needs the first n pages of every shard; deep pages cost more, prefer getUsersAfter
+    @Override
+    public List<UserDto> getUsers(int page, int limit) {
+        int pageIndex = page > 0 ? page - 1 : 0;
+        if ((long) pageIndex * limit + limit > maxPageOffset)
+            throw new IllegalArgumentException("Page reaches past row " + maxPageOffset + ", use the after cursor for deep listings");
+        int from = pageIndex * limit;
+
+        List<UserDto> merged = gather(() -> shardService.getUsers(1, from + limit));
+
+        int to = Math.min(from + limit, merged.size());
+        return from >= to ? new ArrayList<>() : new ArrayList<>(merged.subList(from, to));
+    }
+
+    // Rows sharing the last id are kept together, so a page can run over the limit by up to shards - 1 rows
+    // instead of dropping the rest of them at the next cursor
+    @Override
+    public List<UserDto> getUsersAfter(long afterId, int limit) {
+        List<UserDto> merged = gather(() -> shardService.getUsersAfter(afterId, limit));
+        if (merged.size() <= limit) return merged;
+
+        int to = limit;
+        long lastId = merged.get(limit - 1).getId();
+        while (to < merged.size() && merged.get(to).getId() == lastId) to++;
+        return new ArrayList<>(merged.subList(0, to));
+    }
+
+    // One shard after the other, each a streaming scan; rows come grouped by shard
+    @Override
+    public void exportUsers(Consumer<UserDto> consumer) {
+        for (String shard : router.getShards()) {
+            router.onShard(shard, () -> shardService.exportUsers(consumer));
+        }
+    }
+
+    @Override
+    public UserDto getUser(String email) {
+        String userId = resolveUserId(email);
+
+        if (userId == null)
+            throw new UsersServiceException("User not found for email " + email);
+
+        return router.onShard(router.shardFor(userId), () -> shardService.getUser(email));
+    }
+
+    // Never touches a shard
+    @Override
+    public String getUserIdByEmail(String email) {
+        String userId = resolveUserId(email);
+
+        if (userId == null)
+            throw new UsersServiceException("User not found for email " + email);
+
+        return userId;
+    }
+
+    @Override
+    public UserDto getUserByUserId(String userId) {
+        return router.onShard(router.shardFor(userId), () -> shardService.getUserByUserId(userId));
+    }
+
+    // Not indexed globally: asks the shards in order and returns the first match
+    @Override
+    public UserDto getUserByLastName(String lastName) {
+        for (String shard : router.getShards()) {
+            try {
+                return router.onShard(shard, () -> shardService.getUserByLastName(lastName));
+            } catch (UsersServiceException e) {
+                // not on this shard
+            }
+        }
+        throw new UsersServiceException("User not found for lastName " + lastName);
+    }
+
+    @Override
+    public UserVersion getUserVersion(String email) {
+        String userId = resolveUserId(email);
+        if (userId == null) return null;
+
+        return router.onShard(router.shardFor(userId), () -> shardService.getUserVersion(email));
+    }
+
+    @Override
+    public UserVersion getUserVersionByUserId(String userId) {
+        return router.onShard(router.shardFor(userId), () -> shardService.getUserVersionByUserId(userId));
+    }
+
+    // The search index is in-process and already covers every shard
+    @Override
+    public List<UserDto> searchUsers(String query, int page, int limit) {
+        return shardService.searchUsers(query, page, limit);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scatter.shutdownNow();
+    }
+
+    // In-process directory first when enabled, the directory database on a miss (or before the startup load finished)
+    private String resolveUserId(String email) {
+        String userId = userKeyDirectory == null ? null : userKeyDirectory.findUserId(email);
+        return userId != null ? userId : directoryRepository.findUserIdByEmail(email);
+    }
+
+    // Runs the read on every shard in parallel and merges the already id ordered results
+    private List<UserDto> gather(Supplier<List<UserDto>> read) {
+        List<CompletableFuture<List<UserDto>>> pending = new ArrayList<>(router.getShards().size());
+        for (String shard : router.getShards()) {
+            pending.add(CompletableFuture.supplyAsync(() -> router.onShard(shard, read), scatter));
+        }
+
+        List<UserDto> merged = new ArrayList<>();
+        try {
+            for (CompletableFuture<List<UserDto>> shardResult : pending) {
+                merged.addAll(shardResult.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw e;
+        }
+        merged.sort(MERGE_ORDER);
+        return merged;
+    }
+}
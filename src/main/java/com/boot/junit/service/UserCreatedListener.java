@@ -0,0 +1,9 @@
+package com.boot.junit.service;
+
+import com.boot.junit.shared.UserDto;
+
+// In-process consumer of created users. Called after the creating transaction commits, inline or from the outbox
+// dispatcher (users.outbox.enabled); outbox delivery is at-least-once, so implementations must be idempotent.
+public interface UserCreatedListener {
+    void onUserCreated(UserDto user);
+}
@@ -0,0 +1,97 @@
+package com.boot.junit.service;
+
+import com.boot.junit.config.UsersOutboxProperties;
+import com.boot.junit.repo.UserOutboxEntity;
+import com.boot.junit.repo.UserOutboxRepository;
+import com.boot.junit.shared.UserDto;
+import com.boot.junit.shared.UserMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Hands created users to the UserCreatedListeners. Inline mode calls them on the caller's thread once the
+// transaction commits; outbox mode only appends UserCreated rows in the caller's transaction and wakes the dispatcher.
+@Component
+public class UserEventPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(UserEventPublisher.class);
+
+    private UsersOutboxProperties properties;
+    private UserOutboxRepository outboxRepository;
+    private List<UserCreatedListener> listeners;
+    private ObjectProvider<UserOutboxDispatcher> dispatcher;
+
+    @Autowired
+    public UserEventPublisher(UsersOutboxProperties properties, UserOutboxRepository outboxRepository,
+                              List<UserCreatedListener> listeners, ObjectProvider<UserOutboxDispatcher> dispatcher) {
+        this.properties = properties;
+        this.outboxRepository = outboxRepository;
+        this.listeners = listeners;
+        this.dispatcher = dispatcher;
+    }
+
+    public void userCreated(UserDto user) {
+        usersCreated(Collections.singletonList(user));
+    }
+
+    public void usersCreated(List<UserDto> users) {
+        if (users.isEmpty()) return;
+
+        if (!properties.isEnabled()) {
+            afterCommit(() -> notifyListeners(users));
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        List<UserOutboxEntity> events = new ArrayList<>(users.size());
+        for (UserDto user : users) {
+            UserOutboxEntity event = UserMapper.toOutboxEvent(user);
+            event.setCreatedAt(now);
+            event.setNextAttemptAt(now);
+            events.add(event);
+        }
+        outboxRepository.saveAll(events);
+
+        UserOutboxDispatcher outboxDispatcher = dispatcher.getIfAvailable();
+        if (outboxDispatcher != null) {
+            afterCommit(() -> {
+                if (outboxDispatcher.requestDrain()) outboxDispatcher.drainAsync();
+            });
+        }
+    }
+
+    // The users are already committed at this point, a failing listener must not fail the request
+    private void notifyListeners(List<UserDto> users) {
+        for (UserCreatedListener listener : listeners) {
+            for (UserDto user : users) {
+                try {
+                    listener.onUserCreated(user);
+                } catch (RuntimeException e) {
+                    log.warn("UserCreated listener {} failed for userId {}", listener.getClass().getSimpleName(), user.getUserId(), e);
+                }
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
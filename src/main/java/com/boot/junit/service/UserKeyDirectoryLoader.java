@@ -0,0 +1,50 @@
+package com.boot.junit.service;
+
+import com.boot.junit.shared.UserDto;
+import com.boot.junit.shared.UserKeyDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+// Fills the UserKeyDirectory with one streaming export at startup (every shard when sharded) and keeps it current
+// as a UserCreatedListener. Until the load finishes, misses simply fall back to the database.
+@Component
+@ConditionalOnProperty(prefix = "users.directory", name = "enabled", havingValue = "true")
+public class UserKeyDirectoryLoader implements UserCreatedListener {
+
+    private static final Logger log = LoggerFactory.getLogger(UserKeyDirectoryLoader.class);
+
+    private UserKeyDirectory userKeyDirectory;
+
+    // Provider: UsersService itself depends on the listeners through UserEventPublisher
+    private ObjectProvider<UsersService> usersService;
+
+    @Autowired
+    public UserKeyDirectoryLoader(UserKeyDirectory userKeyDirectory, ObjectProvider<UsersService> usersService) {
+        this.userKeyDirectory = userKeyDirectory;
+        this.usersService = usersService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        usersService.getObject().exportUsers(this::add);
+        log.info("Loaded {} users into the user directory in {} ms, {} bytes off-heap", userKeyDirectory.size(),
+                (System.nanoTime() - start) / 1_000_000, userKeyDirectory.usedBytes());
+    }
+
+    @Override
+    public void onUserCreated(UserDto user) {
+        add(user);
+    }
+
+    // Outbox events carry no row id (0); such entries answer userId lookups, getUser falls back to the email query
+    private void add(UserDto user) {
+        userKeyDirectory.put(user.getId(), user.getUserId(), user.getEmail());
+    }
+}
@@ -0,0 +1,145 @@
+package com.boot.junit.service;
+
+import com.boot.junit.config.UserShardRouter;
+import com.boot.junit.config.UsersOutboxProperties;
+import com.boot.junit.repo.UserOutboxEntity;
+import com.boot.junit.repo.UserOutboxRepository;
+import com.boot.junit.shared.UserDto;
+import com.boot.junit.shared.UserMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Drains user_outbox to the UserCreatedListeners in batches, one transaction per batch: delivered events are
+// deleted, failed ones are retried with exponential backoff and parked after maxAttempts.
+// Pull based, so a burst of creates only grows the table, never an in-memory queue: wake-ups from commits collapse
+// into a single pending drain on the @Async executor and the scheduled poll picks up anything left over.
+@Service
+@ConditionalOnProperty(prefix = "users.outbox", name = "enabled", havingValue = "true")
+public class UserOutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(UserOutboxDispatcher.class);
+
+    private final AtomicBoolean drainRequested = new AtomicBoolean();
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    private UserOutboxRepository outboxRepository;
+    private List<UserCreatedListener> listeners;
+    private UsersOutboxProperties properties;
+    private TransactionTemplate transactionTemplate;
+    private UserShardRouter shardRouter;
+
+    private final Counter dispatched;
+    private final Counter failed;
+
+    @Autowired
+    public UserOutboxDispatcher(UserOutboxRepository outboxRepository, List<UserCreatedListener> listeners,
+                                UsersOutboxProperties properties, PlatformTransactionManager transactionManager,
+                                ObjectProvider<UserShardRouter> shardRouter, MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.listeners = listeners;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardRouter = shardRouter.getIfAvailable();
+        this.dispatched = Counter.builder("users.outbox.dispatched").register(meterRegistry);
+        this.failed = Counter.builder("users.outbox.failed").register(meterRegistry);
+    }
+
+    // true when no drain was pending yet, the caller should then start one with drainAsync()
+    public boolean requestDrain() {
+        return !drainRequested.getAndSet(true);
+    }
+
+    @Async
+    public void drainAsync() {
+        drain();
+    }
+
+    // Also the scheduled poll. A drain already running on another thread picks up the request itself.
+    public void drain() {
+        if (!draining.compareAndSet(false, true)) return;
+
+        try {
+            do {
+                drainRequested.set(false);
+                while (dispatchBatch() == properties.getBatchSize()) {
+                    // full batch, more may be due
+                }
+            } while (drainRequested.get());
+        } catch (RuntimeException e) {
+            log.error("User outbox drain failed, retrying on next poll", e);
+        } finally {
+            draining.set(false);
+        }
+    }
+
+    // Sharded users keep their events in the shard that stored them, each shard is drained in turn
+    private int dispatchBatch() {
+        if (shardRouter == null) return dispatchLocalBatch();
+
+        int largest = 0;
+        for (String shard : shardRouter.getShards()) {
+            largest = Math.max(largest, shardRouter.onShard(shard, this::dispatchLocalBatch));
+        }
+        return largest;
+    }
+
+    private int dispatchLocalBatch() {
+        Integer count = transactionTemplate.execute(status -> {
+            long now = System.currentTimeMillis();
+            List<UserOutboxEntity> events = outboxRepository.findDue(now, PageRequest.of(0, properties.getBatchSize()));
+            List<UserOutboxEntity> delivered = new ArrayList<>(events.size());
+
+            for (UserOutboxEntity event : events) {
+                try {
+                    UserDto user = UserMapper.toDto(event);
+                    for (UserCreatedListener listener : listeners) {
+                        listener.onUserCreated(user);
+                    }
+                    delivered.add(event);
+                } catch (RuntimeException e) {
+                    scheduleRetry(event, now, e);
+                }
+            }
+
+            outboxRepository.deleteAllInBatch(delivered);
+            dispatched.increment(delivered.size());
+            return events.size();
+        });
+        return count == null ? 0 : count;
+    }
+
+    private void scheduleRetry(UserOutboxEntity event, long now, RuntimeException e) {
+        failed.increment();
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        event.setLastError(abbreviate(String.valueOf(e)));
+
+        if (attempts >= properties.getMaxAttempts()) {
+            event.setNextAttemptAt(Long.MAX_VALUE);
+            log.error("Parking UserCreated event {} for userId {} after {} attempts", event.getId(), event.getUserId(), attempts, e);
+            return;
+        }
+
+        long backoff = properties.getRetryBackoff().toMillis() << Math.min(attempts - 1, 30);
+        event.setNextAttemptAt(now + Math.min(backoff, properties.getMaxRetryBackoff().toMillis()));
+        log.warn("UserCreated event {} for userId {} failed, attempt {}", event.getId(), event.getUserId(), attempts, e);
+    }
+
+    private static String abbreviate(String message) {
+        return message.length() <= 500 ? message : message.substring(0, 500);
+    }
+}
@@ -0,0 +1,166 @@
+package com.boot.junit.service;
+
+import com.boot.junit.repo.UserSummary;
+import com.boot.junit.repo.UsersRepository;
+import com.boot.junit.shared.UserDto;
+import com.boot.junit.shared.UserMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+// In-process inverted index over firstName, lastName and email. Terms are kept sorted, so a prefix
+// lookup is a range scan of the term map instead of a LIKE over the users table.
+// Kept current as a UserCreatedListener; with the outbox enabled new users become searchable once dispatched.
+@Component
+public class UserSearchIndex implements UserCreatedListener {
+
+    private static final Comparator<UserDto> RESULT_ORDER = Comparator.comparing(UserDto::getLastName)
+            .thenComparing(UserDto::getFirstName)
+            .thenComparing(UserDto::getEmail);
+
+    private final ConcurrentSkipListMap<String, Set<String>> terms = new ConcurrentSkipListMap<>();
+    private final Map<String, UserDto> users = new ConcurrentHashMap<>();
+
+    private UsersRepository usersRepository;
+
+    @Autowired
+    public UserSearchIndex(UsersRepository usersRepository) {
+        this.usersRepository = usersRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        try (Stream<UserSummary> storedUsers = usersRepository.streamSummaries()) {
+            storedUsers.forEach(user -> add(UserMapper.toDto(user)));
+        }
+    }
+
+    @Override
+    public void onUserCreated(UserDto user) {
+        add(user);
+    }
+
+    public void add(UserDto user) {
+        users.put(user.getUserId(), user);
+        for (String term : tokenize(user.getFirstName(), user.getLastName(), user.getEmail())) {
+            terms.computeIfAbsent(term, key -> ConcurrentHashMap.newKeySet()).add(user.getUserId());
+        }
+    }
+
+    // Every word of the query must prefix-match some term of the user. Candidates are read from the query word with
+    // the fewest postings only and checked against the other words; the page is cut from a bounded max-heap holding
+    // the first page * limit + limit matches, so no posting set is copied and the matches are never fully sorted.
+    public List<UserDto> search(String query, int page, int limit) {
+        if (page < 0 || limit < 1) throw new IllegalArgumentException("page must be >= 0 and limit >= 1");
+
+        Set<String> queryTerms = tokenize(query);
+        if (queryTerms.isEmpty()) return Collections.emptyList();
+
+        String smallestTerm = null;
+        long smallestSize = Long.MAX_VALUE;
+        int smallestSets = 0;
+        for (String queryTerm : queryTerms) {
+            long size = 0;
+            int sets = 0;
+            for (Set<String> userIds : postings(queryTerm)) {
+                size += userIds.size();
+                sets++;
+            }
+            if (size == 0) return Collections.emptyList();
+            if (size < smallestSize) {
+                smallestTerm = queryTerm;
+                smallestSize = size;
+                smallestSets = sets;
+            }
+        }
+        List<String> otherTerms = new ArrayList<>(queryTerms);
+        otherTerms.remove(smallestTerm);
+
+        long from = (long) page * limit;
+        long heapLimit = Math.min(from + limit, smallestSize);
+        PriorityQueue<UserDto> firstMatches = new PriorityQueue<>(RESULT_ORDER.reversed());
+        // a user under several terms of the prefix (patel, patel.anirudh) is only seen once
+        Set<String> seen = smallestSets > 1 ? new HashSet<>() : null;
+        for (Set<String> userIds : postings(smallestTerm)) {
+            for (String userId : userIds) {
+                if (seen != null && !seen.add(userId)) continue;
+
+                UserDto user = users.get(userId);
+                if (user == null || !matchesAll(user, otherTerms)) continue;
+
+                if (firstMatches.size() < heapLimit) {
+                    firstMatches.add(user);
+                } else if (RESULT_ORDER.compare(user, firstMatches.peek()) < 0) {
+                    firstMatches.poll();
+                    firstMatches.add(user);
+                }
+            }
+        }
+        if (firstMatches.size() <= from) return Collections.emptyList();
+
+        UserDto[] returnValue = new UserDto[firstMatches.size()];
+        for (int i = returnValue.length - 1; i >= 0; i--) {
+            returnValue[i] = firstMatches.poll();
+        }
+        return new ArrayList<>(Arrays.asList(returnValue).subList((int) from, returnValue.length));
+    }
+
+    private Collection<Set<String>> postings(String queryTerm) {
+        return terms.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false).values();
+    }
+
+    private static boolean matchesAll(UserDto user, List<String> queryTerms) {
+        if (queryTerms.isEmpty()) return true;
+
+        Set<String> userTerms = tokenize(user.getFirstName(), user.getLastName(), user.getEmail());
+        for (String queryTerm : queryTerms) {
+            boolean matched = false;
+            for (String userTerm : userTerms) {
+                if (userTerm.startsWith(queryTerm)) {
+                    matched = true;
+                    break;
+                }
+            }
+            if (!matched) return false;
+        }
+        return true;
+    }
+
+    // Whole values plus their parts, so "patel", "pagli", "pagli.com" and "shilpi@pagli.com" all find shilpi@pagli.com
+    private static Set<String> tokenize(String... values) {
+        Set<String> tokens = new HashSet<>();
+        for (String value : values) {
+            if (value == null) continue;
+
+            String lowerCase = value.toLowerCase(Locale.ROOT).trim();
+            for (String word : lowerCase.split("\\s+")) {
+                if (word.isEmpty()) continue;
+                tokens.add(word);
+                int at = word.indexOf('@');
+                if (at > 0) tokens.add(word.substring(at + 1));
+                for (String part : word.split("[^\\p{L}\\p{N}]+")) {
+                    if (!part.isEmpty()) tokens.add(part);
+                }
+            }
+        }
+        return tokens;
+    }
+}
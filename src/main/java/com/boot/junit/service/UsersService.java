@@ -1,12 +1,23 @@
 package com.boot.junit.service;
 
+import com.boot.junit.shared.UserBatchResult;
 import com.boot.junit.shared.UserDto;
+import com.boot.junit.shared.UserVersion;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface UsersService {
     UserDto createUser(UserDto user);
+    List<UserBatchResult> createUsers(List<UserDto> users);
     List<UserDto> getUsers(int page, int limit);
+    List<UserDto> getUsersAfter(long afterId, int limit);
+    void exportUsers(Consumer<UserDto> consumer);
     UserDto getUser(String email);
+    String getUserIdByEmail(String email);
+    UserDto getUserByUserId(String userId);
     UserDto getUserByLastName(String lastName);
+    UserVersion getUserVersion(String email);
+    UserVersion getUserVersionByUserId(String userId);
+    List<UserDto> searchUsers(String query, int page, int limit);
 }
\ No newline at end of file
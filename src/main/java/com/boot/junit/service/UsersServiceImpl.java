@@ -2,91 +2,320 @@ package com.boot.junit.service;
 
 import com.boot.junit.exceptions.UsersServiceException;
 import com.boot.junit.repo.UserEntity;
+import com.boot.junit.repo.UserSummary;
 import com.boot.junit.repo.UsersRepository;
+import com.boot.junit.shared.ConstraintViolations;
+import com.boot.junit.shared.SingleFlight;
+import com.boot.junit.shared.UserBatchResult;
 import com.boot.junit.shared.UserDto;
-import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeToken;
-import org.springframework.beans.BeanUtils;
+import com.boot.junit.shared.UserKeyDirectory;
+import com.boot.junit.shared.UserMapper;
+import com.boot.junit.shared.UserVersion;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service("usersService")
 public class UsersServiceImpl implements UsersService {
     private UsersRepository usersRepository;
 
+    private UserSearchIndex userSearchIndex;
+
+    private UserEventPublisher userEventPublisher;
+
+    // Optional (users.directory.enabled), null otherwise
+    private UserKeyDirectory userKeyDirectory;
+
+    // createUsers demarcates its own transactions so a failed batch can be retried row by row
+    private TransactionTemplate transactionTemplate;
+
+    // Concurrent cache misses for the same email share one findByEmail and one mapped UserDto
+    private final SingleFlight<String, UserDto> emailLookups = new SingleFlight<>();
+
+    private final PageMetrics getUsersMetrics;
+    private final PageMetrics getUsersAfterMetrics;
+
     @Autowired
-    public UsersServiceImpl(UsersRepository usersRepository) {
+    public UsersServiceImpl(UsersRepository usersRepository, UserSearchIndex userSearchIndex,
+                            UserEventPublisher userEventPublisher, ObjectProvider<UserKeyDirectory> userKeyDirectory,
+                            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
         this.usersRepository = usersRepository;
+        this.userSearchIndex = userSearchIndex;
+        this.userEventPublisher = userEventPublisher;
+        this.userKeyDirectory = userKeyDirectory.getIfAvailable();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.getUsersMetrics = new PageMetrics(meterRegistry, "getUsers");
+        this.getUsersAfterMetrics = new PageMetrics(meterRegistry, "getUsersAfter");
+        FunctionCounter.builder("users.lookup.coalesced", emailLookups, SingleFlight::coalescedCount)
+                .tag("lookup", "getUser")
+                .register(meterRegistry);
     }
 
+    // The user and its UserCreated event commit together, listeners (search index, ...) run after the commit
     @Override
+    @Timed("users.service")
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "usersByEmail", key = "#user.email"),
+            @CacheEvict(cacheNames = "usersByLastName", key = "#user.lastName")
+    })
     public UserDto createUser(UserDto user) {
-        if (usersRepository.findByEmail(user.getEmail()) != null)
+        // No findByEmail pre-check: the unique index on email decides, which also holds under concurrent creates.
+        // Any other violation (NOT NULL, length, userId) is a bad request or a bug, not a duplicate, and goes up as is.
+        try {
+            return insertUser(user);
+        } catch (DataIntegrityViolationException e) {
+            if (!ConstraintViolations.isUniqueViolation(e, UserEntity.EMAIL_UNIQUE)) throw e;
             throw new UsersServiceException("Record already exists");
+        }
+    }
 
-        ModelMapper modelMapper = new ModelMapper();
-        UserEntity userEntity = modelMapper.map(user, UserEntity.class);
+    // Inserts go out as JDBC batches (hibernate.jdbc.batch_size), ids come from the pooled users_seq.
+    // The chunk is one transaction. An email committed by a concurrent create after findExistingEmails fails it as a
+    // whole; the chunk is then redone one user per transaction, so each user still gets CREATED or DUPLICATE.
+    // Joined to a caller's transaction there is nothing left to retry in, the violation goes up as is.
+    @Override
+    @Timed("users.service")
+    @CacheEvict(cacheNames = "usersByLastName", allEntries = true)
+    public List<UserBatchResult> createUsers(List<UserDto> users) {
+        boolean joined = TransactionSynchronizationManager.isActualTransactionActive();
+        try {
+            return transactionTemplate.execute(status -> insertUsers(users));
+        } catch (DataIntegrityViolationException e) {
+            if (joined || !ConstraintViolations.isUniqueViolation(e, UserEntity.EMAIL_UNIQUE)) throw e;
+            return insertUsersOneByOne(users);
+        }
+    }
+
+    private List<UserBatchResult> insertUsers(List<UserDto> users) {
+        Set<String> emails = new HashSet<>(users.size() * 2);
+        for (UserDto user : users) {
+            emails.add(user.getEmail());
+        }
+        Set<String> takenEmails = emails.isEmpty() ? new HashSet<>() : new HashSet<>(usersRepository.findExistingEmails(emails));
 
-        String publicUserId = UUID.randomUUID().toString();
-        userEntity.setUserId(publicUserId);
+        List<UserBatchResult> returnValue = new ArrayList<>(users.size());
+        List<UserEntity> newUsers = new ArrayList<>(users.size());
+        for (UserDto user : users) {
+            // add() also rejects repeats of the same email inside this batch
+            if (!takenEmails.add(user.getEmail())) {
+                returnValue.add(UserBatchResult.duplicate(user));
+                continue;
+            }
+            UserEntity userEntity = UserMapper.toEntity(user);
+            if (userEntity.getUserId() == null) userEntity.setUserId(UUID.randomUUID().toString());
+            newUsers.add(userEntity);
+            returnValue.add(null);
+        }
 
-        UserEntity storedUserDetails = usersRepository.save(userEntity);
+        // through the repository so a violation comes back as a DataIntegrityViolationException
+        Iterable<UserEntity> storedUsers = usersRepository.saveAllAndFlush(newUsers);
 
-        UserDto returnValue = modelMapper.map(storedUserDetails, UserDto.class);
+        List<UserDto> createdUsers = new ArrayList<>(newUsers.size());
+        int slot = 0;
+        for (UserEntity storedUser : storedUsers) {
+            while (returnValue.get(slot) != null) slot++;
+            UserDto createdUser = UserMapper.toDto(storedUser);
+            createdUsers.add(createdUser);
+            returnValue.set(slot, UserBatchResult.created(createdUser));
+        }
+        userEventPublisher.usersCreated(createdUsers);
 
         return returnValue;
     }
 
-    @Override
-    public List<UserDto> getUsers(int page, int limit) {
+    private List<UserBatchResult> insertUsersOneByOne(List<UserDto> users) {
+        Set<String> emails = new HashSet<>(users.size() * 2);
+        List<UserBatchResult> returnValue = new ArrayList<>(users.size());
+        for (UserDto user : users) {
+            if (!emails.add(user.getEmail())) {
+                returnValue.add(UserBatchResult.duplicate(user));
+                continue;
+            }
+            try {
+                returnValue.add(UserBatchResult.created(transactionTemplate.execute(status -> insertUser(user))));
+            } catch (DataIntegrityViolationException e) {
+                if (!ConstraintViolations.isUniqueViolation(e, UserEntity.EMAIL_UNIQUE)) throw e;
+                returnValue.add(UserBatchResult.duplicate(user));
+            }
+        }
+        return returnValue;
+    }
+
+    private UserDto insertUser(UserDto user) {
+        UserEntity userEntity = UserMapper.toEntity(user);
 
-        List<UserDto> returnValue = new ArrayList<>();
+        // userId is preassigned when ShardedUsersService already picked the shard from it
+        if (userEntity.getUserId() == null) userEntity.setUserId(UUID.randomUUID().toString());
 
+        UserDto returnValue = UserMapper.toDto(usersRepository.saveAndFlush(userEntity));
+        userEventPublisher.userCreated(returnValue);
+
+        return returnValue;
+    }
+
+    @Override
+    @Timed("users.service")
+    @Transactional(readOnly = true)
+    public List<UserDto> getUsers(int page, int limit) {
         if (page > 0) page -= 1;
 
         Pageable pageableRequest = PageRequest.of(page, limit);
 
-        Page<UserEntity> usersPage = usersRepository.findAll(pageableRequest);
-        List<UserEntity> users = usersPage.getContent();
+        List<UserSummary> users = usersRepository.findSummaries(pageableRequest);
+
+        return getUsersMetrics.toDtos(users);
+    }
 
-        Type listType = new TypeToken<List<UserDto>>() {
-        }.getType();
-        returnValue = new ModelMapper().map(users, listType);
+    @Override
+    @Timed("users.service")
+    @Transactional(readOnly = true)
+    public List<UserDto> getUsersAfter(long afterId, int limit) {
+        List<UserSummary> users = usersRepository.findSummariesAfter(afterId, PageRequest.of(0, limit));
 
-        return returnValue;
+        return getUsersAfterMetrics.toDtos(users);
     }
 
     @Override
+    @Timed("users.service")
+    @Transactional(readOnly = true)
+    public void exportUsers(Consumer<UserDto> consumer) {
+        // projected rows never enter the persistence context, so memory stays flat for the whole scan
+        try (Stream<UserSummary> users = usersRepository.streamSummaries()) {
+            users.forEach(user -> consumer.accept(UserMapper.toDto(user)));
+        }
+    }
+
+    // Not @Cacheable(sync = true): that only serialises hits on a real cache, not not-found lookups (an exception,
+    // never cached) nor spring.cache.type=none, and publishes no waiter count. users.lookup.coalesced does.
+    @Override
+    @Timed("users.service")
+    @Cacheable(cacheNames = "usersByEmail", key = "#email")
+    @Transactional(readOnly = true)
     public UserDto getUser(String email) {
-        UserEntity userEntity = usersRepository.findByEmail(email);
+        return emailLookups.execute(email, () -> {
+            UserEntity userEntity = findByEmail(email);
 
-        if (userEntity == null)
+            if (userEntity == null)
+                throw new UsersServiceException("User not found for email " + email);
+
+            return UserMapper.toDto(userEntity);
+        });
+    }
+
+    // Authentication path: no transaction and, with the user directory loaded, no database call at all
+    @Override
+    @Timed("users.service")
+    public String getUserIdByEmail(String email) {
+        if (userKeyDirectory != null) {
+            String userId = userKeyDirectory.findUserId(email);
+            if (userId != null) return userId;
+        }
+
+        UserVersion userVersion = usersRepository.findVersionByEmail(email);
+
+        if (userVersion == null)
             throw new UsersServiceException("User not found for email " + email);
 
-        UserDto returnValue = new UserDto();
-        BeanUtils.copyProperties(userEntity, returnValue);
+        return userVersion.getUserId();
+    }
 
-        return returnValue;
+    @Override
+    @Timed("users.service")
+    @Cacheable(cacheNames = "usersByUserId", key = "#userId")
+    @Transactional(readOnly = true)
+    public UserDto getUserByUserId(String userId) {
+        UserEntity userEntity = usersRepository.findByUserId(userId);
+
+        if (userEntity == null)
+            throw new UsersServiceException("User not found for userId " + userId);
+
+        return UserMapper.toDto(userEntity);
+    }
+
+    // Version probes back conditional GETs; null when the user does not exist so the caller falls through to the full lookup
+    @Override
+    @Timed("users.service")
+    @Transactional(readOnly = true)
+    public UserVersion getUserVersion(String email) {
+        return usersRepository.findVersionByEmail(email);
     }
 
     @Override
+    @Timed("users.service")
+    @Transactional(readOnly = true)
+    public UserVersion getUserVersionByUserId(String userId) {
+        return usersRepository.findVersionByUserId(userId);
+    }
+
+    @Override
+    @Timed("users.service")
+    @Cacheable(cacheNames = "usersByLastName", key = "#lastName")
+    @Transactional(readOnly = true)
     public UserDto getUserByLastName(String lastName) {
         UserEntity userEntity = usersRepository.findByLastName(lastName);
 
         if (userEntity == null)
             throw new UsersServiceException("User not found for lastName " + lastName);
 
-        UserDto returnValue = new UserDto();
-        BeanUtils.copyProperties(userEntity, returnValue);
+        return UserMapper.toDto(userEntity);
+    }
 
-        return returnValue;
+    @Override
+    @Timed("users.service")
+    public List<UserDto> searchUsers(String query, int page, int limit) {
+        if (page > 0) page -= 1;
+
+        return userSearchIndex.search(query, page, limit);
+    }
+
+    // A directory hit turns the email query into a primary key load, which the second-level entity cache can serve.
+    // Misses (directory off, still loading, or an entry without row id) take the email query.
+    private UserEntity findByEmail(String email) {
+        long id = userKeyDirectory == null ? UserKeyDirectory.NOT_FOUND : userKeyDirectory.findId(email);
+        if (id > 0) {
+            UserEntity userEntity = usersRepository.findById(id).orElse(null);
+            if (userEntity != null && email.equals(userEntity.getEmail())) return userEntity;
+        }
+        return usersRepository.findByEmail(email);
+    }
+
+    // Result size and row to UserDto mapping time of the paged reads
+    private static final class PageMetrics {
+        private final DistributionSummary resultSize;
+        private final Timer mapping;
+
+        PageMetrics(MeterRegistry meterRegistry, String query) {
+            resultSize = DistributionSummary.builder("users.result.size").tag("query", query).register(meterRegistry);
+            mapping = Timer.builder("users.mapping").tag("query", query).register(meterRegistry);
+        }
+
+        List<UserDto> toDtos(List<UserSummary> users) {
+            resultSize.record(users.size());
+            return mapping.record(() -> UserMapper.summariesToDtos(users));
+        }
     }
 }
@@ -0,0 +1,37 @@
+package com.boot.junit.shared;
+
+import org.hibernate.exception.ConstraintViolationException;
+
+import java.sql.SQLException;
+import java.util.Locale;
+
+// Tells which unique constraint a DataIntegrityViolationException came from, so callers only turn the one they
+// expect (a taken email) into a business error and let NOT NULL, length or other violations through as they are.
+public final class ConstraintViolations {
+
+    // SQLState of a unique constraint violation (H2, PostgreSQL, ...)
+    public static final String UNIQUE_VIOLATION = "23505";
+
+    private ConstraintViolations() {
+    }
+
+    // Hibernate's extracted constraint name when it has one, else SQLState 23505 plus the constraint name in the
+    // driver message. Names are compared case-insensitively, H2 reports them upper case.
+    public static boolean isUniqueViolation(Throwable e, String constraint) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException
+                    && mentions(((ConstraintViolationException) cause).getConstraintName(), constraint)) {
+                return true;
+            }
+            if (cause instanceof SQLException) {
+                SQLException sqlException = (SQLException) cause;
+                return UNIQUE_VIOLATION.equals(sqlException.getSQLState()) && mentions(sqlException.getMessage(), constraint);
+            }
+        }
+        return false;
+    }
+
+    public static boolean mentions(String text, String constraint) {
+        return text != null && text.toLowerCase(Locale.ROOT).contains(constraint.toLowerCase(Locale.ROOT));
+    }
+}
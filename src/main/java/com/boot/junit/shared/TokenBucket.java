@@ -0,0 +1,38 @@
+package com.boot.junit.shared;
+
+import java.util.function.LongSupplier;
+
+// Classic token bucket: holds up to capacity tokens, refilled continuously at refillPerSecond.
+// Refill is computed lazily on acquire, so an idle bucket costs nothing.
+public class TokenBucket {
+
+    private final double capacity;
+    private final double refillPerNano;
+    private final LongSupplier clock;
+
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucket(long capacity, double refillPerSecond) {
+        this(capacity, refillPerSecond, System::nanoTime);
+    }
+
+    TokenBucket(long capacity, double refillPerSecond, LongSupplier clock) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000d;
+        this.clock = clock;
+        this.tokens = capacity;
+        this.lastRefill = clock.getAsLong();
+    }
+
+    public synchronized boolean tryAcquire() {
+        long now = clock.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNano);
+        lastRefill = now;
+
+        if (tokens < 1) return false;
+
+        tokens -= 1;
+        return true;
+    }
+}
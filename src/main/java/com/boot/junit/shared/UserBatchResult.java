@@ -0,0 +1,42 @@
+package com.boot.junit.shared;
+
+public class UserBatchResult {
+
+    public enum Status {
+        CREATED, DUPLICATE, INVALID
+    }
+
+    private final Status status;
+    private final UserDto user;
+    private final String message;
+
+    private UserBatchResult(Status status, UserDto user, String message) {
+        this.status = status;
+        this.user = user;
+        this.message = message;
+    }
+
+    public static UserBatchResult created(UserDto user) {
+        return new UserBatchResult(Status.CREATED, user, null);
+    }
+
+    public static UserBatchResult duplicate(UserDto user) {
+        return new UserBatchResult(Status.DUPLICATE, user, "Record already exists");
+    }
+
+    public static UserBatchResult invalid(String message) {
+        return new UserBatchResult(Status.INVALID, null, message);
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public UserDto getUser() {
+        return user;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
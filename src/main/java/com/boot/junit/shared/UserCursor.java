@@ -0,0 +1,29 @@
+package com.boot.junit.shared;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Opaque keyset cursor for GET /users?after=. Wraps the last UserEntity id the client has seen.
+public final class UserCursor {
+
+    private static final String PREFIX = "id:";
+
+    private UserCursor() {
+    }
+
+    public static String encode(long lastId) {
+        byte[] raw = (PREFIX + lastId).getBytes(StandardCharsets.US_ASCII);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    // An empty cursor starts from the first user
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) return 0L;
+
+        String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+        if (!raw.startsWith(PREFIX))
+            throw new IllegalArgumentException("Invalid cursor " + cursor);
+
+        return Long.parseLong(raw.substring(PREFIX.length()));
+    }
+}
@@ -8,6 +8,7 @@ public class UserDto {
     private String lastName;
     private String email;
     private String password;
+    private long version;
 
     public long getId() {
         return id;
@@ -57,4 +58,12 @@ public class UserDto {
         this.password = password;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
 }
@@ -0,0 +1,316 @@
+package com.boot.junit.shared;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+
+// email -> (id, userId) for every user, kept off-heap so tens of millions of entries cost the GC nothing but a
+// handful of buffer objects. Records are appended to direct memory chunks:
+//   [email length: short][userId length: byte, 0 = packed UUID][id: long][userId: 16 bytes or raw][email: UTF-8]
+// and found through an open-addressing (linear probing) table of longs, also off-heap: the low 40 bits hold
+// record offset + 1 (0 = empty slot), the high 24 bits part of the hash so most probe misses never touch a record.
+// Lookups are optimistic reads validated against a StampedLock, writers (startup load, createUser) take the write lock.
+// Everything here counts against -XX:MaxDirectMemorySize (default: -Xmx), not the heap; see users.directory in application.yml.
+public class UserKeyDirectory {
+
+    public static final long NOT_FOUND = -1L;
+
+    static final int CHUNK_SIZE = 1 << 24;
+
+    private static final int CHUNK_BITS = 24;
+    private static final long OFFSET_MASK = (1L << 40) - 1;
+    private static final int HASH_SHIFT = 40;
+    private static final int HEADER_SIZE = 2 + 1 + 8;
+    private static final int UUID_SIZE = 16;
+
+    private final StampedLock lock = new StampedLock();
+
+    private ByteBuffer slots;
+    private int capacity;
+    private int size;
+
+    private ByteBuffer[] chunks = new ByteBuffer[0];
+    private int chunkPosition = CHUNK_SIZE;
+    private long recordBytes;
+
+    public UserKeyDirectory(int expectedUsers) {
+        capacity = tableSize(expectedUsers);
+        slots = ByteBuffer.allocateDirect(capacity * Long.BYTES);
+    }
+
+    public long findId(String email) {
+        byte[] key = email.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(key);
+
+        long stamp = lock.tryOptimisticRead();
+        long id = readIdGuarded(key, hash);
+        if (lock.validate(stamp)) return id;
+
+        stamp = lock.readLock();
+        try {
+            return readId(key, hash);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public String findUserId(String email) {
+        byte[] key = email.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(key);
+
+        long stamp = lock.tryOptimisticRead();
+        String userId = readUserIdGuarded(key, hash);
+        if (lock.validate(stamp)) return userId;
+
+        stamp = lock.readLock();
+        try {
+            return readUserId(key, hash);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Emails never change, a repeated put only happens on a reload and points the slot at the new record
+    public void put(long id, String userId, String email) {
+        byte[] key = email.getBytes(StandardCharsets.UTF_8);
+        if (key.length > Short.MAX_VALUE) throw new IllegalArgumentException("Email too long for the user directory");
+        int hash = hash(key);
+        UUID packedUserId = packable(userId);
+        byte[] rawUserId = packedUserId == null ? userId.getBytes(StandardCharsets.UTF_8) : null;
+        if (rawUserId != null && (rawUserId.length == 0 || rawUserId.length > 255)) {
+            throw new IllegalArgumentException("UserId length not supported by the user directory");
+        }
+
+        long stamp = lock.writeLock();
+        try {
+            long offset = append(id, packedUserId, rawUserId, key);
+            long entry = ((long) (hash >>> 8) << HASH_SHIFT) | (offset + 1);
+
+            int slot = locateSlot(key, hash);
+            if (slots.getLong(slot * Long.BYTES) == 0) size++;
+            slots.putLong(slot * Long.BYTES, entry);
+
+            if (size > capacity / 4 * 3) resize(capacity * 2);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Direct memory held by the table and the record chunks, including the unused tail of the last chunk
+    public long allocatedBytes() {
+        long stamp = lock.readLock();
+        try {
+            return (long) capacity * Long.BYTES + (long) chunks.length * CHUNK_SIZE;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Direct memory actually used: the table plus the appended records
+    public long usedBytes() {
+        long stamp = lock.readLock();
+        try {
+            return (long) capacity * Long.BYTES + recordBytes;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // A concurrent writer can make an optimistic read see a half updated table, whatever it returns or throws
+    // is discarded when the stamp does not validate
+    private long readIdGuarded(byte[] key, int hash) {
+        try {
+            return readId(key, hash);
+        } catch (RuntimeException e) {
+            return NOT_FOUND;
+        }
+    }
+
+    private String readUserIdGuarded(byte[] key, int hash) {
+        try {
+            return readUserId(key, hash);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private long readId(byte[] key, int hash) {
+        long offset = locateRecord(key, hash);
+        if (offset < 0) return NOT_FOUND;
+
+        return chunk(offset).getLong(position(offset) + 3);
+    }
+
+    private String readUserId(byte[] key, int hash) {
+        long offset = locateRecord(key, hash);
+        if (offset < 0) return null;
+
+        ByteBuffer chunk = chunk(offset);
+        int position = position(offset);
+        int userIdLength = chunk.get(position + 2) & 0xFF;
+        if (userIdLength == 0) {
+            return new UUID(chunk.getLong(position + HEADER_SIZE), chunk.getLong(position + HEADER_SIZE + 8)).toString();
+        }
+
+        byte[] userId = new byte[userIdLength];
+        for (int i = 0; i < userIdLength; i++) {
+            userId[i] = chunk.get(position + HEADER_SIZE + i);
+        }
+        return new String(userId, StandardCharsets.UTF_8);
+    }
+
+    private long locateRecord(byte[] key, int hash) {
+        ByteBuffer table = slots;
+        int tableCapacity = capacity;
+        int mask = tableCapacity - 1;
+        long hashTag = hash >>> 8;
+
+        // bounded, so a torn optimistic read can not spin forever
+        for (int probe = 0, slot = hash & mask; probe < tableCapacity; probe++, slot = (slot + 1) & mask) {
+            long entry = table.getLong(slot * Long.BYTES);
+            if (entry == 0) return -1;
+
+            long offset = (entry & OFFSET_MASK) - 1;
+            if ((entry >>> HASH_SHIFT) == hashTag && matches(offset, key)) return offset;
+        }
+        return -1;
+    }
+
+    // Slot holding this email, or the empty slot it belongs in. Write lock held.
+    private int locateSlot(byte[] key, int hash) {
+        int mask = capacity - 1;
+        long hashTag = hash >>> 8;
+        int slot = hash & mask;
+        while (true) {
+            long entry = slots.getLong(slot * Long.BYTES);
+            if (entry == 0) return slot;
+
+            if ((entry >>> HASH_SHIFT) == hashTag && matches((entry & OFFSET_MASK) - 1, key)) return slot;
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private boolean matches(long offset, byte[] key) {
+        ByteBuffer chunk = chunk(offset);
+        int position = position(offset);
+        if (chunk.getShort(position) != key.length) return false;
+
+        int userIdLength = chunk.get(position + 2) & 0xFF;
+        int emailPosition = position + HEADER_SIZE + (userIdLength == 0 ? UUID_SIZE : userIdLength);
+        for (int i = 0; i < key.length; i++) {
+            if (chunk.get(emailPosition + i) != key[i]) return false;
+        }
+        return true;
+    }
+
+    private long append(long id, UUID packedUserId, byte[] rawUserId, byte[] key) {
+        int recordSize = HEADER_SIZE + (packedUserId != null ? UUID_SIZE : rawUserId.length) + key.length;
+        if (chunkPosition + recordSize > CHUNK_SIZE) {
+            if (chunks.length == 1 << (HASH_SHIFT - CHUNK_BITS)) throw new IllegalStateException("User directory is full");
+            chunks = Arrays.copyOf(chunks, chunks.length + 1);
+            chunks[chunks.length - 1] = ByteBuffer.allocateDirect(CHUNK_SIZE);
+            chunkPosition = 0;
+        }
+
+        ByteBuffer chunk = chunks[chunks.length - 1];
+        int position = chunkPosition;
+        chunk.putShort(position, (short) key.length);
+        chunk.put(position + 2, (byte) (packedUserId != null ? 0 : rawUserId.length));
+        chunk.putLong(position + 3, id);
+        int next = position + HEADER_SIZE;
+        if (packedUserId != null) {
+            chunk.putLong(next, packedUserId.getMostSignificantBits());
+            chunk.putLong(next + 8, packedUserId.getLeastSignificantBits());
+            next += UUID_SIZE;
+        } else {
+            for (byte b : rawUserId) chunk.put(next++, b);
+        }
+        for (byte b : key) chunk.put(next++, b);
+
+        chunkPosition = next;
+        recordBytes += recordSize;
+        return ((long) (chunks.length - 1) << CHUNK_BITS) | position;
+    }
+
+    private void resize(int newCapacity) {
+        if (newCapacity > Integer.MAX_VALUE / Long.BYTES) throw new IllegalStateException("User directory is full");
+
+        ByteBuffer newSlots = ByteBuffer.allocateDirect(newCapacity * Long.BYTES);
+        int mask = newCapacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            long entry = slots.getLong(i * Long.BYTES);
+            if (entry == 0) continue;
+
+            int slot = rehash(entry, newCapacity) & mask;
+            while (newSlots.getLong(slot * Long.BYTES) != 0) slot = (slot + 1) & mask;
+            newSlots.putLong(slot * Long.BYTES, entry);
+        }
+        slots = newSlots;
+        capacity = newCapacity;
+    }
+
+    // The home slot comes from the low hash bits, which the stored tag does not carry, so the key is read back
+    private int rehash(long entry, int newCapacity) {
+        long offset = (entry & OFFSET_MASK) - 1;
+        ByteBuffer chunk = chunk(offset);
+        int position = position(offset);
+        int keyLength = chunk.getShort(position);
+        int userIdLength = chunk.get(position + 2) & 0xFF;
+        int emailPosition = position + HEADER_SIZE + (userIdLength == 0 ? UUID_SIZE : userIdLength);
+
+        byte[] key = new byte[keyLength];
+        for (int i = 0; i < keyLength; i++) {
+            key[i] = chunk.get(emailPosition + i);
+        }
+        return hash(key);
+    }
+
+    private ByteBuffer chunk(long offset) {
+        return chunks[(int) (offset >>> CHUNK_BITS)];
+    }
+
+    private static int position(long offset) {
+        return (int) (offset & (CHUNK_SIZE - 1));
+    }
+
+    // Only canonical (lower case) UUID strings are packed, so they decode back to the exact same userId
+    private static UUID packable(String userId) {
+        if (userId.length() != 36) return null;
+        try {
+            UUID uuid = UUID.fromString(userId);
+            return uuid.toString().equals(userId) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // FNV-1a with a murmur finaliser: low bits pick the slot, high bits become the tag
+    private static int hash(byte[] key) {
+        int hash = 0x811C9DC5;
+        for (byte b : key) {
+            hash = (hash ^ b) * 0x01000193;
+        }
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        hash *= 0xC2B2AE35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+
+    private static int tableSize(int expectedUsers) {
+        int needed = Math.max(16, (int) Math.min(1 << 27, (long) expectedUsers * 4 / 3 + 1));
+        return Integer.highestOneBit(needed - 1) << 1;
+    }
+}
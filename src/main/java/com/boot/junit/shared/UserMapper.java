@@ -0,0 +1,135 @@
+package com.boot.junit.shared;
+
+import com.boot.junit.model.UserBatchItemRest;
+import com.boot.junit.model.UserDetailsRequestModel;
+import com.boot.junit.model.UserRest;
+import com.boot.junit.repo.UserEntity;
+import com.boot.junit.repo.UserOutboxEntity;
+import com.boot.junit.repo.UserSummary;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Hand written field copies between the user layers. Replaces new ModelMapper() per request,
+// so there is no type matching or reflection on the request path and lists are pre-sized.
+public final class UserMapper {
+
+    private UserMapper() {
+    }
+
+    public static UserDto toDto(UserDetailsRequestModel source) {
+        if (source == null) return null;
+
+        UserDto target = new UserDto();
+        target.setFirstName(source.getFirstName());
+        target.setLastName(source.getLastName());
+        target.setEmail(source.getEmail());
+        target.setPassword(source.getPassword());
+        return target;
+    }
+
+    public static UserEntity toEntity(UserDto source) {
+        if (source == null) return null;
+
+        UserEntity target = new UserEntity();
+        target.setId(source.getId());
+        target.setUserId(source.getUserId());
+        target.setFirstName(source.getFirstName());
+        target.setLastName(source.getLastName());
+        target.setEmail(source.getEmail());
+        target.setVersion(source.getVersion());
+        return target;
+    }
+
+    public static UserDto toDto(UserEntity source) {
+        if (source == null) return null;
+
+        UserDto target = new UserDto();
+        target.setId(source.getId());
+        target.setUserId(source.getUserId());
+        target.setFirstName(source.getFirstName());
+        target.setLastName(source.getLastName());
+        target.setEmail(source.getEmail());
+        target.setVersion(source.getVersion());
+        return target;
+    }
+
+    public static UserDto toDto(UserSummary source) {
+        if (source == null) return null;
+
+        UserDto target = new UserDto();
+        target.setId(source.getId());
+        target.setUserId(source.getUserId());
+        target.setFirstName(source.getFirstName());
+        target.setLastName(source.getLastName());
+        target.setEmail(source.getEmail());
+        return target;
+    }
+
+    public static UserOutboxEntity toOutboxEvent(UserDto source) {
+        if (source == null) return null;
+
+        UserOutboxEntity target = new UserOutboxEntity();
+        target.setEventType(UserOutboxEntity.USER_CREATED);
+        target.setUserId(source.getUserId());
+        target.setFirstName(source.getFirstName());
+        target.setLastName(source.getLastName());
+        target.setEmail(source.getEmail());
+        return target;
+    }
+
+    public static UserDto toDto(UserOutboxEntity source) {
+        if (source == null) return null;
+
+        UserDto target = new UserDto();
+        target.setUserId(source.getUserId());
+        target.setFirstName(source.getFirstName());
+        target.setLastName(source.getLastName());
+        target.setEmail(source.getEmail());
+        return target;
+    }
+
+    public static UserRest toRest(UserDto source) {
+        if (source == null) return null;
+
+        UserRest target = new UserRest();
+        target.setUserId(source.getUserId());
+        target.setFirstName(source.getFirstName());
+        target.setLastName(source.getLastName());
+        target.setEmail(source.getEmail());
+        return target;
+    }
+
+    public static UserBatchItemRest toRest(int index, UserBatchResult source) {
+        UserBatchItemRest target = new UserBatchItemRest();
+        target.setIndex(index);
+        target.setStatus(source.getStatus().name());
+        target.setUser(toRest(source.getUser()));
+        target.setMessage(source.getMessage());
+        return target;
+    }
+
+    public static List<UserDto> toDtos(List<UserEntity> sources) {
+        List<UserDto> targets = new ArrayList<>(sources.size());
+        for (UserEntity source : sources) {
+            targets.add(toDto(source));
+        }
+        return targets;
+    }
+
+    public static List<UserDto> summariesToDtos(List<UserSummary> sources) {
+        List<UserDto> targets = new ArrayList<>(sources.size());
+        for (UserSummary source : sources) {
+            targets.add(toDto(source));
+        }
+        return targets;
+    }
+
+    public static List<UserRest> toRests(List<UserDto> sources) {
+        List<UserRest> targets = new ArrayList<>(sources.size());
+        for (UserDto source : sources) {
+            targets.add(toRest(source));
+        }
+        return targets;
+    }
+}
@@ -0,0 +1,21 @@
+package com.boot.junit.shared;
+
+// Identity and optimistic lock version of a stored user, enough to answer a conditional GET without loading the user
+public class UserVersion {
+
+    private final String userId;
+    private final long version;
+
+    public UserVersion(String userId, long version) {
+        this.userId = userId;
+        this.version = version;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
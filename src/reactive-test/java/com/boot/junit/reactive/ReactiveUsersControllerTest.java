@@ -0,0 +1,101 @@
+package com.boot.junit.reactive;
+
+import com.boot.junit.model.UserDetailsRequestModel;
+import com.boot.junit.model.UserRest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+// Runs only with mvn -Preactive test, which compiles src/reactive/java and src/reactive-test/java
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("reactive")
+public class ReactiveUsersControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @DisplayName("Reactive create, get and list")
+    @Test
+    void testCreateUser_whenValidDetailsProvided_returnsUserFromGetAndList() {
+        // Arrange
+        UserDetailsRequestModel userDetails = newUserDetails("Shilpi", "Patel", "shilpi@pagli.com");
+
+        // Act
+        UserRest createdUser = webTestClient.post().uri("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(userDetails)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(UserRest.class)
+                .returnResult().getResponseBody();
+
+        UserRest returnedUser = webTestClient.get().uri("/users/{userId}", createdUser.getUserId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(UserRest.class)
+                .returnResult().getResponseBody();
+
+        List<UserRest> listedUsers = webTestClient.get().uri("/users?page=1&limit=50")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(UserRest.class)
+                .returnResult().getResponseBody();
+
+        // Assert
+        Assertions.assertNotNull(createdUser.getUserId(), "Created user should have a userId");
+        Assertions.assertEquals(userDetails.getEmail(), returnedUser.getEmail(), "Email should match");
+        Assertions.assertTrue(listedUsers.stream().anyMatch(user -> user.getUserId().equals(createdUser.getUserId())),
+                "Created user should be listed");
+    }
+
+    @DisplayName("Reactive create with mismatched passwords")
+    @Test
+    void testCreateUser_whenPasswordsDoNotMatch_returnsBadRequest() {
+        // Arrange
+        UserDetailsRequestModel userDetails = newUserDetails("Anirudh", "Patel", "patel.anirudh@gmail.com");
+        userDetails.setRepeatPassword("87654321");
+
+        // Act & Assert
+        webTestClient.post().uri("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(userDetails)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @DisplayName("Reactive list with a negative page")
+    @Test
+    void testGetUsers_whenPageNegative_returnsBadRequest() {
+        // Act & Assert
+        webTestClient.get().uri("/users?page=-1&limit=2")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @DisplayName("Reactive search with page * limit past the int range")
+    @Test
+    void testSearchUsers_whenPageTimesLimitOverflows_returnsBadRequest() {
+        // Act & Assert
+        webTestClient.get().uri("/users/search?q=patel&page={page}&limit=2", Integer.MAX_VALUE)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    private static UserDetailsRequestModel newUserDetails(String firstName, String lastName, String email) {
+        UserDetailsRequestModel userDetails = new UserDetailsRequestModel();
+        userDetails.setFirstName(firstName);
+        userDetails.setLastName(lastName);
+        userDetails.setEmail(email);
+        userDetails.setPassword("12345678");
+        userDetails.setRepeatPassword("12345678");
+        return userDetails;
+    }
+}
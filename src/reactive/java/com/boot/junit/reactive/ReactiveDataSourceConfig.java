@@ -0,0 +1,33 @@
+package com.boot.junit.reactive;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+import javax.persistence.EntityManagerFactory;
+
+// With R2DBC on the classpath Boot skips its JDBC DataSource auto-configuration, and the JPA and R2DBC transaction
+// managers compete for the default slot. JPA still owns the schema and the blocking beans, so both are declared here;
+// @Transactional stays on JPA, the reactive side uses the R2dbcTransactionManager Boot adds next to it.
+@Configuration
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReactiveDataSourceConfig {
+
+    // HikariDataSource bean, so users.datasource.pool.* still applies. ReadReplicaConfig provides its own when enabled.
+    @Bean
+    @ConditionalOnProperty(prefix = "users.datasource.replicas", name = "enabled", havingValue = "false", matchIfMissing = true)
+    public HikariDataSource dataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @Primary
+    public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        return new JpaTransactionManager(entityManagerFactory);
+    }
+}
@@ -0,0 +1,84 @@
+package com.boot.junit.reactive;
+
+import com.boot.junit.controller.PageParams;
+import com.boot.junit.controller.UserDetailsRequestValidator;
+import com.boot.junit.model.UserDetailsRequestModel;
+import com.boot.junit.model.UserRest;
+import com.boot.junit.shared.UserMapper;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.WebDataBinder;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+
+// WebFlux version of UsersController for the reactive profile: same paths and payloads, Mono / Flux return types.
+// Listings are written as rows arrive (NDJSON when asked for) with backpressure back to the R2DBC cursor.
+@RestController
+@RequestMapping("/users")
+@Profile("reactive")
+public class ReactiveUsersController {
+
+    ReactiveUsersService usersService;
+    UserDetailsRequestValidator userDetailsValidator = new UserDetailsRequestValidator();
+
+    public ReactiveUsersController(ReactiveUsersService usersService) {
+        this.usersService = usersService;
+    }
+
+    @InitBinder("userDetailsRequestModel")
+    void initUserDetailsBinder(WebDataBinder binder) {
+        binder.setValidator(userDetailsValidator);
+    }
+
+    @PostMapping
+    public Mono<UserRest> createUser(@RequestBody @Valid UserDetailsRequestModel userDetails) {
+        return usersService.createUser(UserMapper.toDto(userDetails))
+                .map(UserMapper::toRest);
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<UserRest> getUsers(@RequestParam(value = "page", defaultValue = "0") int page,
+                                   @RequestParam(value = "limit", defaultValue = "2") int limit) {
+        PageParams.check(page, limit);
+
+        return usersService.getUsers(page, limit)
+                .map(UserMapper::toRest);
+    }
+
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<UserRest> exportUsers() {
+        return usersService.exportUsers()
+                .map(UserMapper::toRest);
+    }
+
+    @GetMapping(path = "/search")
+    public Flux<UserRest> searchUsers(@RequestParam(value = "q") String query,
+                                      @RequestParam(value = "page", defaultValue = "0") int page,
+                                      @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        PageParams.check(page, limit);
+
+        return usersService.searchUsers(query, page, limit)
+                .map(UserMapper::toRest);
+    }
+
+    @GetMapping(path = "/email")
+    public Mono<UserRest> getUser(@RequestParam(value = "emailName", required = true) String emailName) {
+        return usersService.getUser(emailName)
+                .map(UserMapper::toRest);
+    }
+
+    @GetMapping(path = "/{userId}")
+    public Mono<UserRest> getUserByUserId(@PathVariable(value = "userId", required = true) String userId) {
+        return usersService.getUserByUserId(userId)
+                .map(UserMapper::toRest);
+    }
+
+    @GetMapping(path = "/names/{lastName}")
+    public Mono<UserRest> getUserByLastName(@PathVariable(value = "lastName", required = true) String lastName) {
+        return usersService.getUserByLastName(lastName)
+                .map(UserMapper::toRest);
+    }
+}
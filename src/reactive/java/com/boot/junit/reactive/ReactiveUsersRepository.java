@@ -0,0 +1,117 @@
+package com.boot.junit.reactive;
+
+import com.boot.junit.repo.UserEntity;
+import com.boot.junit.repo.UserOutboxEntity;
+import com.boot.junit.shared.UserDto;
+import io.r2dbc.spi.Row;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// R2DBC access to the users table Hibernate creates. Plain SQL over DatabaseClient: the table is mapped by the JPA
+// UserEntity, and a second Spring Data mapping of it would put both repository modules in strict mode.
+@Repository
+@Profile("reactive")
+public class ReactiveUsersRepository {
+
+    private static final String SELECT_USERS = "select id, user_id, first_name, last_name, email, version from users";
+
+    private DatabaseClient databaseClient;
+
+    public ReactiveUsersRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<UserDto> findUsers(long offset, int limit) {
+        return databaseClient.sql(SELECT_USERS + " order by id limit :limit offset :offset")
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(ReactiveUsersRepository::toDto)
+                .all();
+    }
+
+    // Rows are pulled as the subscriber requests them
+    public Flux<UserDto> streamUsers() {
+        return databaseClient.sql(SELECT_USERS + " order by id")
+                .map(ReactiveUsersRepository::toDto)
+                .all();
+    }
+
+    public Mono<UserDto> findByEmail(String email) {
+        return databaseClient.sql(SELECT_USERS + " where email = :email")
+                .bind("email", email)
+                .map(ReactiveUsersRepository::toDto)
+                .one();
+    }
+
+    public Mono<UserDto> findByUserId(String userId) {
+        return databaseClient.sql(SELECT_USERS + " where user_id = :userId")
+                .bind("userId", userId)
+                .map(ReactiveUsersRepository::toDto)
+                .one();
+    }
+
+    public Mono<UserDto> findByLastName(String lastName) {
+        return databaseClient.sql(SELECT_USERS + " where last_name = :lastName order by id")
+                .bind("lastName", lastName)
+                .map(ReactiveUsersRepository::toDto)
+                .first();
+    }
+
+    // One value of the pooled users_seq used as a single id; Hibernate only hands out ids below the values it fetched,
+    // so both writers can share the sequence
+    public Mono<Long> nextId() {
+        return databaseClient.sql("select next value for users_seq")
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    public Mono<Integer> insert(UserDto user) {
+        DatabaseClient.GenericExecuteSpec insert = databaseClient.sql("insert into users"
+                        + " (id, user_id, first_name, last_name, email, email_reversed, version)"
+                        + " values (:id, :userId, :firstName, :lastName, :email, :emailReversed, 0)")
+                .bind("id", user.getId())
+                .bind("userId", user.getUserId());
+        insert = bind(insert, "firstName", user.getFirstName());
+        insert = bind(insert, "lastName", user.getLastName());
+        insert = bind(insert, "email", user.getEmail());
+        insert = bind(insert, "emailReversed", UserEntity.reverse(user.getEmail()));
+
+        return insert.fetch().rowsUpdated();
+    }
+
+    // Id straight from user_outbox_seq, shared with Hibernate the same way as users_seq in nextId()
+    public Mono<Integer> insertOutboxEvent(UserOutboxEntity event) {
+        DatabaseClient.GenericExecuteSpec insert = databaseClient.sql("insert into user_outbox"
+                        + " (id, event_type, user_id, first_name, last_name, email, created_at, attempts, next_attempt_at)"
+                        + " values (next value for user_outbox_seq, :eventType, :userId, :firstName, :lastName, :email,"
+                        + " :createdAt, 0, :nextAttemptAt)")
+                .bind("eventType", event.getEventType())
+                .bind("userId", event.getUserId())
+                .bind("createdAt", event.getCreatedAt())
+                .bind("nextAttemptAt", event.getNextAttemptAt());
+        insert = bind(insert, "firstName", event.getFirstName());
+        insert = bind(insert, "lastName", event.getLastName());
+        insert = bind(insert, "email", event.getEmail());
+
+        return insert.fetch().rowsUpdated();
+    }
+
+    // Missing values reach the NOT NULL constraints like they do through JPA
+    private static DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec, String name, String value) {
+        return value == null ? spec.bindNull(name, String.class) : spec.bind(name, value);
+    }
+
+    private static UserDto toDto(Row row) {
+        UserDto user = new UserDto();
+        user.setId(row.get("id", Long.class));
+        user.setUserId(row.get("user_id", String.class));
+        user.setFirstName(row.get("first_name", String.class));
+        user.setLastName(row.get("last_name", String.class));
+        user.setEmail(row.get("email", String.class));
+        user.setVersion(row.get("version", Long.class));
+        return user;
+    }
+}
@@ -0,0 +1,134 @@
+package com.boot.junit.reactive;
+
+import com.boot.junit.config.UsersOutboxProperties;
+import com.boot.junit.exceptions.UsersServiceException;
+import com.boot.junit.repo.UserEntity;
+import com.boot.junit.repo.UserOutboxEntity;
+import com.boot.junit.service.UserEventPublisher;
+import com.boot.junit.service.UserOutboxDispatcher;
+import com.boot.junit.service.UserSearchIndex;
+import com.boot.junit.shared.ConstraintViolations;
+import com.boot.junit.shared.UserDto;
+import com.boot.junit.shared.UserMapper;
+import io.r2dbc.spi.R2dbcException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.UUID;
+
+// Reactive counterpart of UsersService over R2DBC. Same errors (UsersServiceException) and same search index.
+@Service
+@Profile("reactive")
+public class ReactiveUsersService {
+
+    private ReactiveUsersRepository usersRepository;
+    private UserSearchIndex userSearchIndex;
+    private UserEventPublisher userEventPublisher;
+    private UsersOutboxProperties outboxProperties;
+    private ObjectProvider<UserOutboxDispatcher> outboxDispatcher;
+    private TransactionalOperator transactionalOperator;
+
+    public ReactiveUsersService(ReactiveUsersRepository usersRepository, UserSearchIndex userSearchIndex,
+                                UserEventPublisher userEventPublisher, UsersOutboxProperties outboxProperties,
+                                ObjectProvider<UserOutboxDispatcher> outboxDispatcher,
+                                ReactiveTransactionManager transactionManager) {
+        this.usersRepository = usersRepository;
+        this.userSearchIndex = userSearchIndex;
+        this.userEventPublisher = userEventPublisher;
+        this.outboxProperties = outboxProperties;
+        this.outboxDispatcher = outboxDispatcher;
+        this.transactionalOperator = TransactionalOperator.create(transactionManager);
+    }
+
+    public Mono<UserDto> createUser(UserDto user) {
+        user.setUserId(UUID.randomUUID().toString());
+
+        Mono<Integer> insert = usersRepository.nextId()
+                .flatMap(id -> {
+                    user.setId(id);
+                    return usersRepository.insert(user);
+                });
+
+        if (outboxProperties.isEnabled()) {
+            // The UserCreated row commits or rolls back with the user in one R2DBC transaction, as UserEventPublisher
+            // does inside a JPA one; the dispatcher is only woken once both are committed
+            return insert.then(usersRepository.insertOutboxEvent(outboxEvent(user)))
+                    .as(transactionalOperator::transactional)
+                    .onErrorMap(ReactiveUsersService::isEmailTaken, e -> new UsersServiceException("Record already exists"))
+                    .then(Mono.fromRunnable(this::wakeDispatcher))
+                    .thenReturn(user);
+        }
+
+        return insert
+                .onErrorMap(ReactiveUsersService::isEmailTaken, e -> new UsersServiceException("Record already exists"))
+                // inline listeners are blocking, keep them off the event loop
+                .then(Mono.fromRunnable(() -> userEventPublisher.userCreated(user)).subscribeOn(Schedulers.boundedElastic()))
+                .thenReturn(user);
+    }
+
+    private static UserOutboxEntity outboxEvent(UserDto user) {
+        long now = System.currentTimeMillis();
+        UserOutboxEntity event = UserMapper.toOutboxEvent(user);
+        event.setCreatedAt(now);
+        event.setNextAttemptAt(now);
+        return event;
+    }
+
+    // drainAsync only hands the drain to the @Async executor, nothing blocks here
+    private void wakeDispatcher() {
+        UserOutboxDispatcher dispatcher = outboxDispatcher.getIfAvailable();
+        if (dispatcher != null && dispatcher.requestDrain()) dispatcher.drainAsync();
+    }
+
+    // Same rule as UsersServiceImpl: only the email unique constraint means a duplicate, other violations go up as is
+    private static boolean isEmailTaken(Throwable e) {
+        if (!(e instanceof DataIntegrityViolationException)) return false;
+
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof R2dbcException) {
+                return ConstraintViolations.UNIQUE_VIOLATION.equals(((R2dbcException) cause).getSqlState())
+                        && ConstraintViolations.mentions(cause.getMessage(), UserEntity.EMAIL_UNIQUE);
+            }
+        }
+        return false;
+    }
+
+    public Flux<UserDto> getUsers(int page, int limit) {
+        if (page > 0) page -= 1;
+
+        return usersRepository.findUsers((long) page * limit, limit);
+    }
+
+    public Flux<UserDto> exportUsers() {
+        return usersRepository.streamUsers();
+    }
+
+    public Mono<UserDto> getUser(String email) {
+        return usersRepository.findByEmail(email)
+                .switchIfEmpty(Mono.error(() -> new UsersServiceException("User not found for email " + email)));
+    }
+
+    public Mono<UserDto> getUserByUserId(String userId) {
+        return usersRepository.findByUserId(userId)
+                .switchIfEmpty(Mono.error(() -> new UsersServiceException("User not found for userId " + userId)));
+    }
+
+    public Mono<UserDto> getUserByLastName(String lastName) {
+        return usersRepository.findByLastName(lastName)
+                .switchIfEmpty(Mono.error(() -> new UsersServiceException("User not found for lastName " + lastName)));
+    }
+
+    public Flux<UserDto> searchUsers(String query, int page, int limit) {
+        if (page > 0) page -= 1;
+        int pageIndex = page;
+
+        return Flux.defer(() -> Flux.fromIterable(userSearchIndex.search(query, pageIndex, limit)));
+    }
+}
@@ -0,0 +1,150 @@
+package com.boot.junit.config;
+
+import com.boot.junit.service.UsersService;
+import com.boot.junit.shared.UserDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Two embedded H2 databases, one primary and one replica. There is no replication between them, so a row's
+// location tells which database served a call. Caches keep the production settings, so a result cached from one
+// database and served for another shows up as a wrong answer.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=" + ReadWriteRoutingDataSourceTest.PRIMARY_URL,
+        "users.datasource.replicas.enabled=true",
+        "users.datasource.replicas.instances[0].url=" + ReadWriteRoutingDataSourceTest.REPLICA_URL,
+        "users.datasource.replicas.instances[0].username=sa",
+        "users.datasource.replicas.health-check-interval=1h",
+        "users.datasource.replicas.health-check-query=" + ReadWriteRoutingDataSourceTest.HEALTH_CHECK_QUERY
+})
+public class ReadWriteRoutingDataSourceTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:users-rw-primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:users-rw-replica;DB_CLOSE_DELAY=-1";
+    static final String HEALTH_CHECK_QUERY = "select count(*) from users where 1 = 0";
+
+    @Autowired
+    private UsersService usersService;
+
+    @Autowired
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setup() {
+        primary = new JdbcTemplate(new DriverManagerDataSource(PRIMARY_URL, "sa", ""));
+        replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+        // stands in for replication of the schema Hibernate created on the primary
+        replica.execute("DROP ALL OBJECTS");
+        for (String statement : primary.queryForList("SCRIPT NODATA", String.class)) {
+            if (!statement.startsWith("--")) replica.execute(statement);
+        }
+        // the replica was kept out of rotation while it had no users table
+        routingDataSource.checkReplicas(1);
+    }
+
+    @DisplayName("Read only lookup is served by the replica")
+    @Test
+    void testGetUserByUserId_whenReadOnly_readsFromReplica() {
+        // Arrange
+        replica.update("insert into users (id, user_id, first_name, last_name, email, email_reversed, version) values (?, ?, ?, ?, ?, ?, ?)",
+                1_000_000L, "replica-only", "Shilpi", "Patel", "replica@pagli.com", "moc.ilgap@acilper", 0L);
+
+        // Act
+        UserDto returnedUser = usersService.getUserByUserId("replica-only");
+
+        // Assert
+        Assertions.assertEquals("replica@pagli.com", returnedUser.getEmail(), "User should be read from the replica");
+    }
+
+    // The unpinned read finds nothing on the replica first; a query cache shared with the primary would hand that
+    // empty result to the pinned read
+    @DisplayName("Create goes to the primary, pinned reads follow it")
+    @Test
+    void testCreateUser_whenCreated_writesToPrimaryAndPinnedReadSeesIt() {
+        // Arrange
+        UserDto user = new UserDto();
+        user.setFirstName("Anirudh");
+        user.setLastName("Patel");
+        user.setEmail("anirudh@routing.com");
+
+        // Act
+        UserDto createdUser = usersService.createUser(user);
+        Object unpinnedRead = usersService.getUserVersionByUserId(createdUser.getUserId());
+        Object pinnedRead;
+        ReadWriteRoutingDataSource.pinToPrimary();
+        try {
+            pinnedRead = usersService.getUserVersionByUserId(createdUser.getUserId());
+        } finally {
+            ReadWriteRoutingDataSource.unpin();
+        }
+
+        // Assert
+        Assertions.assertEquals(1, primary.queryForObject("select count(*) from users where email = ?", Integer.class, user.getEmail()), "User should be stored on the primary");
+        Assertions.assertEquals(0, replica.queryForObject("select count(*) from users where email = ?", Integer.class, user.getEmail()), "User should not be written to the replica");
+        Assertions.assertNull(unpinnedRead, "Unpinned read should go to the replica");
+        Assertions.assertNotNull(pinnedRead, "Pinned read should go to the primary");
+    }
+
+    @DisplayName("Primary and replica pools publish hikaricp metrics")
+    @Test
+    void testPools_whenContextStarted_publishHikariMetrics() {
+        // Assert: both pools have started, Hibernate's bootstrap used the primary and setup() checked the replica
+        for (String pool : new String[]{"users-pool-primary", "users-pool-replica-0"}) {
+            Assertions.assertNotNull(meterRegistry.find("hikaricp.connections").tag("pool", pool).gauge(),
+                    "Pool " + pool + " should publish hikaricp.connections");
+        }
+    }
+
+    @DisplayName("Unhealthy replica is ejected, reads go to the remaining ones")
+    @Test
+    void testCheckReplicas_whenReplicaDown_ejectsIt() {
+        // Arrange
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+        replicas.put("replica-1", new DriverManagerDataSource("jdbc:h2:mem:users-rw-missing;IFEXISTS=TRUE", "sa", ""));
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(
+                new DriverManagerDataSource(PRIMARY_URL, "sa", ""), replicas, HEALTH_CHECK_QUERY);
+
+        // Act
+        Object keyBeforeCheck = readOnlyLookupKey(routingDataSource);
+        routingDataSource.checkReplicas(1);
+        List<String> healthyReplicas = routingDataSource.getHealthyReplicas();
+        Object firstKey = readOnlyLookupKey(routingDataSource);
+        Object secondKey = readOnlyLookupKey(routingDataSource);
+
+        // Assert
+        Assertions.assertEquals(ReadWriteRoutingDataSource.PRIMARY, keyBeforeCheck, "Reads should stay on the primary until a replica passes a check");
+        Assertions.assertEquals(Collections.singletonList("replica-0"), healthyReplicas, "Broken replica should be ejected");
+        Assertions.assertEquals("replica-0", firstKey, "Reads should go to the healthy replica");
+        Assertions.assertEquals("replica-0", secondKey, "Ejected replica should not be in rotation");
+    }
+
+    private static Object readOnlyLookupKey(ReadWriteRoutingDataSource routingDataSource) {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            return routingDataSource.determineCurrentLookupKey();
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+    }
+}
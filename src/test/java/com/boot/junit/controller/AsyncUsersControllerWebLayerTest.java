@@ -0,0 +1,64 @@
+package com.boot.junit.controller;
+
+import com.boot.junit.service.AsyncUsersService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@WebMvcTest(controllers = AsyncUsersController.class, excludeAutoConfiguration = {SecurityAutoConfiguration.class},
+        properties = "users.execution.mode=async")
+public class AsyncUsersControllerWebLayerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    AsyncUsersService asyncUsersService;
+
+    @DisplayName("Async Get Users - negative page")
+    @Test
+    void testGetUsers_whenPageNegative_returnBadRequest() throws Exception {
+        // Arrange
+        RequestBuilder requestBuilder = MockMvcRequestBuilders.get("/async/users")
+                .queryParam("page", "-1")
+                .accept(MediaType.APPLICATION_JSON);
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(requestBuilder).andReturn();
+
+        // Assert
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST.value(), mvcResult.getResponse().getStatus(), "Incorrect HTTP Status Code Returned");
+        verify(asyncUsersService, never()).getUsers(Mockito.anyInt(), Mockito.anyInt());
+    }
+
+    @DisplayName("Async Get Users - page * limit past the int range")
+    @Test
+    void testGetUsers_whenPageTimesLimitOverflows_returnBadRequest() throws Exception {
+        // Arrange
+        RequestBuilder requestBuilder = MockMvcRequestBuilders.get("/async/users")
+                .queryParam("page", String.valueOf(Integer.MAX_VALUE))
+                .queryParam("limit", "2")
+                .accept(MediaType.APPLICATION_JSON);
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(requestBuilder).andReturn();
+
+        // Assert
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST.value(), mvcResult.getResponse().getStatus(), "Incorrect HTTP Status Code Returned");
+        verify(asyncUsersService, never()).getUsers(Mockito.anyInt(), Mockito.anyInt());
+    }
+}
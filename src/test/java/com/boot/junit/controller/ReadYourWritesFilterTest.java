@@ -0,0 +1,64 @@
+package com.boot.junit.controller;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import javax.servlet.http.Cookie;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+public class ReadYourWritesFilterTest {
+
+    private static final String COOKIE = "users-primary-until";
+
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(COOKIE, Duration.ofSeconds(5),
+            "test-secret".getBytes(StandardCharsets.UTF_8));
+
+    @DisplayName("Signed stamp inside the window pins until the stamp")
+    @Test
+    void testPinnedUntil_whenSignedStamp_returnsStamp() {
+        // Arrange
+        long now = 1_000_000L;
+        String until = Long.toString(now + 3_000);
+
+        // Act
+        long pinnedUntil = filter.pinnedUntil(request(until + "." + filter.sign(until)), now);
+
+        // Assert
+        Assertions.assertEquals(now + 3_000, pinnedUntil, "Signed stamp should be honoured");
+    }
+
+    @DisplayName("Unsigned or forged stamp does not pin")
+    @Test
+    void testPinnedUntil_whenForged_returnsZero() {
+        // Arrange
+        long now = 1_000_000L;
+
+        // Act & Assert
+        Assertions.assertEquals(0, filter.pinnedUntil(request(Long.toString(Long.MAX_VALUE)), now), "Unsigned stamp should be ignored");
+        Assertions.assertEquals(0, filter.pinnedUntil(request(Long.MAX_VALUE + "." + filter.sign("1")), now),
+                "Stamp with another stamp's signature should be ignored");
+    }
+
+    @DisplayName("Signed stamp past the window is clamped to now + stickiness")
+    @Test
+    void testPinnedUntil_whenStampBeyondWindow_clampsToStickiness() {
+        // Arrange
+        long now = 1_000_000L;
+        String until = Long.toString(now + 60_000);
+
+        // Act
+        long pinnedUntil = filter.pinnedUntil(request(until + "." + filter.sign(until)), now);
+
+        // Assert
+        Assertions.assertEquals(now + 5_000, pinnedUntil, "Pin should not outlast the stickiness window");
+    }
+
+    private static MockHttpServletRequest request(String cookieValue) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users");
+        request.setCookies(new Cookie(COOKIE, cookieValue));
+        return request;
+    }
+}
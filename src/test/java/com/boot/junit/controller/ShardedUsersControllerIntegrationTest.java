@@ -0,0 +1,112 @@
+package com.boot.junit.controller;
+
+import com.boot.junit.config.UserShardRouter;
+import com.boot.junit.model.UserPageRest;
+import com.boot.junit.model.UserRest;
+import com.boot.junit.service.UsersService;
+import com.boot.junit.shared.UserDto;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Goes through the servlet stack, where an open-in-view EntityManager would pin the request to the directory tenant
+// before ShardedUsersService binds the shard. Databases are separate from ShardedUsersServiceTest's.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=" + ShardedUsersControllerIntegrationTest.DIRECTORY_URL,
+        "users.datasource.shards.enabled=true",
+        "users.datasource.shards.instances[0].url=jdbc:h2:mem:users-web-shard-0;DB_CLOSE_DELAY=-1",
+        "users.datasource.shards.instances[0].username=sa",
+        "users.datasource.shards.instances[1].url=jdbc:h2:mem:users-web-shard-1;DB_CLOSE_DELAY=-1",
+        "users.datasource.shards.instances[1].username=sa"
+})
+public class ShardedUsersControllerIntegrationTest {
+
+    static final String DIRECTORY_URL = "jdbc:h2:mem:users-web-directory;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private TestRestTemplate testRestTemplate;
+
+    @Autowired
+    private UserShardRouter router;
+
+    @Autowired
+    private UsersService usersService;
+
+    @DisplayName("Keyset pages walk every user of every shard, ids tied across shards included")
+    @Test
+    void testGetUsersAfter_whenPagedToTheEnd_returnsEveryUserOnce() {
+        // Arrange
+        Set<String> createdUserIds = new HashSet<>();
+        for (int i = 0; i < 20; i++) {
+            UserDto user = new UserDto();
+            user.setFirstName("Keyset" + i);
+            user.setLastName("Patel");
+            user.setEmail("keyset" + i + "@web-shard.com");
+            createdUserIds.add(usersService.createUser(user).getUserId());
+        }
+
+        // Act
+        List<String> pagedUserIds = new ArrayList<>();
+        String cursor = "";
+        int pages = 0;
+        do {
+            UserPageRest page = testRestTemplate.getForObject("/users?after={after}&limit=3", UserPageRest.class, cursor);
+            page.getUsers().forEach(user -> pagedUserIds.add(user.getUserId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null && ++pages < 100);
+
+        // Assert
+        Assertions.assertEquals(pagedUserIds.size(), new HashSet<>(pagedUserIds).size(), "Pages should not repeat users");
+        Assertions.assertTrue(pagedUserIds.containsAll(createdUserIds), "Pages should reach every created user");
+    }
+
+    @DisplayName("User created over HTTP is stored on its hashed shard, not in the directory database")
+    @Test
+    void testCreateUser_whenPostedOverHttp_storesOnOwningShard() throws JSONException {
+        // Arrange
+        JSONObject userDetailsRequestJson = new JSONObject();
+        userDetailsRequestJson.put("firstName", "Shilpi");
+        userDetailsRequestJson.put("lastName", "Patel");
+        userDetailsRequestJson.put("email", "shilpi@web-shard.com");
+        userDetailsRequestJson.put("password", "12345678");
+        userDetailsRequestJson.put("repeatPassword", "12345678");
+        HttpHeaders httpHeaders = new HttpHeaders();
+        httpHeaders.setContentType(MediaType.APPLICATION_JSON);
+
+        // Act
+        ResponseEntity<UserRest> createdUser = testRestTemplate.postForEntity("/users",
+                new HttpEntity<>(userDetailsRequestJson.toString(), httpHeaders), UserRest.class);
+
+        // Assert
+        Assertions.assertEquals(HttpStatus.OK, createdUser.getStatusCode(), "HttpStatus OK should be returned");
+        String userId = createdUser.getBody().getUserId();
+        int owningShard = router.getShards().indexOf(router.shardFor(userId));
+        for (int i = 0; i < router.getShards().size(); i++) {
+            JdbcTemplate shard = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:users-web-shard-" + i + ";DB_CLOSE_DELAY=-1", "sa", ""));
+            Assertions.assertEquals(i == owningShard ? 1 : 0, shard.queryForObject("select count(*) from users where user_id = ?",
+                    Integer.class, userId), "User should be stored on shard " + owningShard + " only");
+        }
+        JdbcTemplate directory = new JdbcTemplate(new DriverManagerDataSource(DIRECTORY_URL, "sa", ""));
+        Assertions.assertEquals(0, directory.queryForObject("select count(*) from users where user_id = ?", Integer.class, userId),
+                "Directory database should not hold the user row");
+        Assertions.assertEquals(userId, directory.queryForObject("select user_id from user_directory where email = ?", String.class,
+                "shilpi@web-shard.com"), "Directory should map the email to the userId");
+    }
+}
@@ -0,0 +1,96 @@
+package com.boot.junit.controller;
+
+import com.boot.junit.model.UserDetailsRequestModel;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+
+public class UserDetailsRequestValidatorTest {
+
+    private UserDetailsRequestValidator validator;
+    private UserDetailsRequestModel requestModel;
+
+    @BeforeEach
+    void setup() {
+        validator = new UserDetailsRequestValidator();
+        requestModel = new UserDetailsRequestModel();
+        requestModel.setFirstName("Shilpi");
+        requestModel.setLastName("Patel");
+        requestModel.setEmail("shilpi@pagli.com");
+        requestModel.setPassword("12345678");
+        requestModel.setRepeatPassword("12345678");
+    }
+
+    @DisplayName("Valid request passes")
+    @Test
+    void testValidate_whenValidDetailsGiven_returnsNoErrors() {
+        // Act
+        Errors errors = validate(requestModel);
+
+        // Assert
+        Assertions.assertFalse(errors.hasErrors(), "Valid request should have no errors");
+    }
+
+    @DisplayName("Size violations reported with the model messages")
+    @Test
+    void testValidate_whenFieldsTooShort_returnsSizeErrors() {
+        // Arrange
+        requestModel.setFirstName("A");
+        requestModel.setPassword("1234567");
+        requestModel.setRepeatPassword("1234567");
+
+        // Act
+        Errors errors = validate(requestModel);
+
+        // Assert
+        Assertions.assertEquals(UserDetailsRequestValidator.FIRST_NAME_MESSAGE, errors.getFieldError("firstName").getDefaultMessage(), "FirstName message should match");
+        Assertions.assertEquals("Size", errors.getFieldError("password").getCode(), "Password error code should match Bean Validation");
+        Assertions.assertNull(errors.getFieldError("lastName"), "LastName should be valid");
+    }
+
+    @DisplayName("Malformed email rejected")
+    @Test
+    void testValidate_whenMalformedEmailGiven_returnsEmailError() {
+        // Arrange
+        requestModel.setEmail("shilpi@@pagli..com");
+
+        // Act
+        Errors errors = validate(requestModel);
+
+        // Assert
+        Assertions.assertEquals(UserDetailsRequestValidator.EMAIL_MESSAGE, errors.getFieldError("email").getDefaultMessage(), "Email message should match");
+    }
+
+    @DisplayName("Mismatched passwords rejected")
+    @Test
+    void testValidate_whenPasswordsDiffer_returnsRepeatPasswordError() {
+        // Arrange
+        requestModel.setRepeatPassword("87654321");
+
+        // Act
+        Errors errors = validate(requestModel);
+
+        // Assert
+        Assertions.assertEquals(1, errors.getErrorCount(), "Only the password match should fail");
+        Assertions.assertEquals(UserDetailsRequestValidator.PASSWORDS_MATCH_MESSAGE, errors.getFieldError("repeatPassword").getDefaultMessage(), "RepeatPassword message should match");
+    }
+
+    @DisplayName("Missing fields pass like Bean Validation")
+    @Test
+    void testValidate_whenFieldsNull_returnsNoErrors() {
+        // Act
+        Errors errors = validate(new UserDetailsRequestModel());
+
+        // Assert
+        Assertions.assertFalse(errors.hasErrors(), "Null fields should not be rejected");
+    }
+
+    private Errors validate(UserDetailsRequestModel userDetails) {
+        Errors errors = new BeanPropertyBindingResult(userDetails, "userDetailsRequestModel");
+        validator.validate(userDetails, errors);
+        return errors;
+    }
+}
@@ -0,0 +1,34 @@
+package com.boot.junit.controller;
+
+import com.boot.junit.shared.UserDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+public class UserExportWriterTest {
+
+    @DisplayName("CSV export quotes fields holding a carriage return")
+    @Test
+    void testCsvWrite_whenFieldHasCarriageReturn_quotesField() throws Exception {
+        // Arrange
+        UserDto user = new UserDto();
+        user.setUserId("1");
+        user.setFirstName("Shilpi");
+        user.setLastName("Pa\rtel");
+        user.setEmail("shilpi@pagli.com");
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // Act
+        UserExportWriter writer = UserExportWriter.create(UserExportWriter.CSV, outputStream, new ObjectMapper());
+        writer.accept(user);
+        writer.flush();
+
+        // Assert
+        Assertions.assertEquals("userId,firstName,lastName,email\n1,Shilpi,\"Pa\rtel\",shilpi@pagli.com\n",
+                outputStream.toString(StandardCharsets.UTF_8), "Field with a carriage return should be quoted");
+    }
+}
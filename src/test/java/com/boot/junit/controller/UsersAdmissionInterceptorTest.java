@@ -0,0 +1,149 @@
+package com.boot.junit.controller;
+
+import com.boot.junit.config.UsersAdmissionProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.Collections;
+
+public class UsersAdmissionInterceptorTest {
+
+    private static final String PROXY = "10.0.0.10";
+
+    @DisplayName("Client over its bucket gets 429 with Retry-After")
+    @Test
+    void testPreHandle_whenClientBucketEmpty_rejectsWith429() {
+        // Arrange
+        UsersAdmissionInterceptor interceptor = new UsersAdmissionInterceptor(properties(1, 100), new SimpleMeterRegistry());
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+
+        // Act
+        boolean first = interceptor.preHandle(request("192.168.0.2", null), new MockHttpServletResponse(), null);
+        boolean second = interceptor.preHandle(request("192.168.0.2", null), rejected, null);
+        boolean otherClient = interceptor.preHandle(request("192.168.0.3", null), new MockHttpServletResponse(), null);
+
+        // Assert
+        Assertions.assertTrue(first, "First call should be admitted");
+        Assertions.assertFalse(second, "Second call of the same client should be rejected");
+        Assertions.assertEquals(429, rejected.getStatus(), "HttpStatus 429 should be returned");
+        Assertions.assertEquals("1", rejected.getHeader(HttpHeaders.RETRY_AFTER), "Retry-After should be set");
+        Assertions.assertTrue(otherClient, "Other clients should keep their own bucket");
+    }
+
+    @DisplayName("Forged leftmost X-Forwarded-For entries do not buy a fresh bucket")
+    @Test
+    void testPreHandle_whenForwardedForSpoofed_usesHopAddedByProxy() {
+        // Arrange
+        UsersAdmissionProperties properties = properties(1, 100);
+        properties.setClientHeader("X-Forwarded-For");
+        properties.setTrustedProxies(Collections.singleton(PROXY));
+        UsersAdmissionInterceptor interceptor = new UsersAdmissionInterceptor(properties, new SimpleMeterRegistry());
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+
+        // Act
+        boolean first = interceptor.preHandle(request(PROXY, "1.1.1.1, 203.0.113.7"), new MockHttpServletResponse(), null);
+        boolean spoofed = interceptor.preHandle(request(PROXY, "2.2.2.2, 203.0.113.7"), rejected, null);
+
+        // Assert
+        Assertions.assertTrue(first, "First call should be admitted");
+        Assertions.assertFalse(spoofed, "Same client behind a different forged entry should share its bucket");
+        Assertions.assertEquals(429, rejected.getStatus(), "HttpStatus 429 should be returned");
+        Assertions.assertEquals("198.51.100.1", UsersAdmissionInterceptor.clientKey(request("198.51.100.1", "203.0.113.7"),
+                "X-Forwarded-For", properties.getTrustedProxies()), "Header should be ignored on requests not sent by a trusted proxy");
+    }
+
+    @DisplayName("Calls over the concurrency limit get 503")
+    @Test
+    void testPreHandle_whenConcurrencyLimitReached_rejectsWith503() {
+        // Arrange
+        UsersAdmissionInterceptor interceptor = new UsersAdmissionInterceptor(properties(100, 1), new SimpleMeterRegistry());
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+
+        // Act
+        boolean first = interceptor.preHandle(request("192.168.0.2", null), new MockHttpServletResponse(), null);
+        boolean second = interceptor.preHandle(request("192.168.0.3", null), rejected, null);
+
+        // Assert
+        Assertions.assertTrue(first, "First call should be admitted");
+        Assertions.assertFalse(second, "Call beyond the limit should be rejected");
+        Assertions.assertEquals(503, rejected.getStatus(), "HttpStatus 503 should be returned");
+    }
+
+    @DisplayName("Async request keeps its permit until the async dispatch completes")
+    @Test
+    void testAfterCompletion_whenAsyncDispatchCompletes_releasesPermit() {
+        // Arrange
+        UsersAdmissionInterceptor interceptor = new UsersAdmissionInterceptor(properties(100, 1), new SimpleMeterRegistry());
+        MockHttpServletRequest asyncRequest = request("192.168.0.2", null);
+        MockHttpServletResponse asyncResponse = new MockHttpServletResponse();
+
+        // Act
+        interceptor.preHandle(asyncRequest, asyncResponse, null);
+        // initial dispatch returns with the request still running; DispatcherServlet skips afterCompletion for it
+        boolean whileRunning = interceptor.preHandle(request("192.168.0.3", null), new MockHttpServletResponse(), null);
+        boolean redispatch = interceptor.preHandle(asyncRequest, asyncResponse, null);
+        interceptor.afterCompletion(asyncRequest, asyncResponse, null, null);
+        boolean afterCompletion = interceptor.preHandle(request("192.168.0.3", null), new MockHttpServletResponse(), null);
+
+        // Assert
+        Assertions.assertFalse(whileRunning, "Permit should be held while the async request runs");
+        Assertions.assertTrue(redispatch, "Async re-dispatch should pass without a new permit");
+        Assertions.assertTrue(afterCompletion, "Permit should be released once the async dispatch completes");
+    }
+
+    @DisplayName("Only requests finished on their initial dispatch feed the concurrency limit a latency sample")
+    @Test
+    void testAfterCompletion_whenAsyncDispatchCompletes_skipsLatencySample() {
+        // Arrange
+        UsersAdmissionProperties properties = properties(100, 10);
+        properties.getConcurrency().setMinLimit(1);
+        // every sampled call is over target and halves the limit
+        properties.getConcurrency().setLatencyTarget(Duration.ofNanos(1));
+        properties.getConcurrency().setBackoffRatio(0.5);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        UsersAdmissionInterceptor interceptor = new UsersAdmissionInterceptor(properties, meterRegistry);
+        MockHttpServletRequest asyncRequest = request("192.168.0.2", null);
+        MockHttpServletRequest syncRequest = request("192.168.0.3", null);
+
+        // Act
+        interceptor.preHandle(asyncRequest, new MockHttpServletResponse(), null);
+        interceptor.afterConcurrentHandlingStarted(asyncRequest, new MockHttpServletResponse(), null);
+        interceptor.preHandle(asyncRequest, new MockHttpServletResponse(), null);
+        interceptor.afterCompletion(asyncRequest, new MockHttpServletResponse(), null, null);
+        double limitAfterAsync = meterRegistry.get("users.admission.limit").gauge().value();
+        interceptor.preHandle(syncRequest, new MockHttpServletResponse(), null);
+        interceptor.afterCompletion(syncRequest, new MockHttpServletResponse(), null, null);
+        double limitAfterSync = meterRegistry.get("users.admission.limit").gauge().value();
+
+        // Assert
+        Assertions.assertEquals(10, limitAfterAsync, "Async request should not move the limit");
+        Assertions.assertEquals(5, limitAfterSync, "Slow request on its initial dispatch should halve the limit");
+        Assertions.assertEquals(0, meterRegistry.get("users.admission.in.flight").gauge().value(), "Both permits should be released");
+    }
+
+    private static UsersAdmissionProperties properties(long clientCapacity, int concurrencyLimit) {
+        UsersAdmissionProperties properties = new UsersAdmissionProperties();
+        properties.setClient(new UsersAdmissionProperties.Bucket(clientCapacity, 0.001));
+        properties.setEndpoint(new UsersAdmissionProperties.Bucket(1000, 0.001));
+        UsersAdmissionProperties.Concurrency concurrency = properties.getConcurrency();
+        concurrency.setInitialLimit(concurrencyLimit);
+        concurrency.setMinLimit(concurrencyLimit);
+        concurrency.setMaxLimit(concurrencyLimit);
+        return properties;
+    }
+
+    private static MockHttpServletRequest request(String remoteAddress, String forwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users");
+        request.setRemoteAddr(remoteAddress);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/users");
+        if (forwardedFor != null) request.addHeader("X-Forwarded-For", forwardedFor);
+        return request;
+    }
+}
@@ -0,0 +1,101 @@
+package com.boot.junit.controller;
+
+import com.boot.junit.repo.UsersRepository;
+import com.boot.junit.service.UsersService;
+import com.boot.junit.shared.UserDto;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+
+// NDJSON batch create through the servlet stack. The repository spy lets a concurrent create commit one of the
+// emails right after the batch's existence check, the window a real race would hit.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class UsersBatchIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate testRestTemplate;
+
+    @Autowired
+    private UsersService usersService;
+
+    @SpyBean
+    private UsersRepository usersRepository;
+
+    @DisplayName("Email taken by a concurrent create is reported as a duplicate, the rest of the chunk is created")
+    @Test
+    void testCreateUsers_whenEmailCreatedConcurrently_returnsPerItemResults() throws Exception {
+        // Arrange
+        AtomicBoolean raced = new AtomicBoolean();
+        // The spy wraps a JDK proxy, which has no real method to call. Its default answer delegates to the proxy.
+        Answer<?> repository = Mockito.mockingDetails(usersRepository).getMockCreationSettings().getDefaultAnswer();
+        doAnswer(invocation -> {
+            Object existingEmails = repository.answer(invocation);
+            if (raced.compareAndSet(false, true)) {
+                CompletableFuture.runAsync(() -> usersService.createUser(user("Racer", "racer@ndjson.com"))).join();
+            }
+            return existingEmails;
+        }).when(usersRepository).findExistingEmails(anyCollection());
+
+        String body = line("First", "first@ndjson.com") + "\n" + line("Second", "racer@ndjson.com") + "\n"
+                + line("Third", "third@ndjson.com") + "\n";
+        HttpHeaders httpHeaders = new HttpHeaders();
+        httpHeaders.setContentType(MediaType.parseMediaType("application/x-ndjson"));
+        httpHeaders.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
+
+        // Act
+        ResponseEntity<String> response = testRestTemplate.postForEntity("/users/batch", new HttpEntity<>(body, httpHeaders), String.class);
+        JsonNode results = new ObjectMapper().readTree(response.getBody());
+
+        // Assert
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode(), "Lost race should not fail the request");
+        Assertions.assertTrue(raced.get(), "Concurrent create should have run");
+        Assertions.assertEquals(3, results.size(), "There should be 1 result per submitted user");
+        Assertions.assertEquals("CREATED", results.get(0).get("status").asText(), "First user should be created");
+        Assertions.assertEquals("DUPLICATE", results.get(1).get("status").asText(), "Concurrently taken email should be a duplicate");
+        Assertions.assertEquals("CREATED", results.get(2).get("status").asText(), "Third user should be created");
+        Assertions.assertEquals(2, results.get(2).get("index").asInt(), "Result index should match the submitted position");
+        Assertions.assertEquals("Racer", usersRepository.findByEmail("racer@ndjson.com").getFirstName(), "Concurrent create should keep the email");
+        Assertions.assertNotNull(usersRepository.findByEmail("first@ndjson.com"), "First user should be stored");
+        Assertions.assertNotNull(usersRepository.findByEmail("third@ndjson.com"), "Third user should be stored");
+    }
+
+    private static String line(String firstName, String email) throws JSONException {
+        JSONObject userDetailsRequestJson = new JSONObject();
+        userDetailsRequestJson.put("firstName", firstName);
+        userDetailsRequestJson.put("lastName", "Patel");
+        userDetailsRequestJson.put("email", email);
+        userDetailsRequestJson.put("password", "12345678");
+        userDetailsRequestJson.put("repeatPassword", "12345678");
+        return userDetailsRequestJson.toString();
+    }
+
+    private static UserDto user(String firstName, String email) {
+        UserDto userDto = new UserDto();
+        userDto.setFirstName(firstName);
+        userDto.setLastName("Patel");
+        userDto.setEmail(email);
+        return userDto;
+    }
+}
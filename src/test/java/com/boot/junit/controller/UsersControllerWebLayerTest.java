@@ -5,7 +5,10 @@ import com.boot.junit.model.UserDetailsRequestModel;
 import com.boot.junit.model.UserRest;
 import com.boot.junit.service.UsersService;
 import com.boot.junit.service.UsersServiceImpl;
+import com.boot.junit.shared.UserBatchResult;
 import com.boot.junit.shared.UserDto;
+import com.boot.junit.shared.UserVersion;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.*;
 import org.mockito.Mockito;
@@ -14,6 +17,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
@@ -21,11 +25,20 @@ import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.RequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.UUID;
+import java.util.function.Consumer;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 
 @WebMvcTest(controllers = UsersController.class, excludeAutoConfiguration = {SecurityAutoConfiguration.class})
 // if we have Spring Security : tell Spring Security to autoconfigure MockWebMvc but without security filters
@@ -129,6 +142,25 @@ public class UsersControllerWebLayerTest {
         Assertions.assertEquals(expectedHttpStatusCode, mvcResult.getResponse().getStatus(), "Incorrect Http Status Code Returned");
     }
 
+    @DisplayName("User Creation Failed : Passwords do not match")
+    @Test
+    void testCreateUser_whenRepeatPasswordDiffers_returnBadRequest() throws Exception {
+        // Arrange
+        requestModel.setRepeatPassword("87654321");
+
+        RequestBuilder requestBuilder = MockMvcRequestBuilders.post("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(requestModel));
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(requestBuilder).andReturn();
+
+        // Assert
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST.value(), mvcResult.getResponse().getStatus(), "Incorrect HTTP Status Code Returned");
+        verify(usersService, never()).createUser(any());
+    }
+
     @DisplayName("Get User By Email")
     @Test
     void testGetUser_whenEmailNameGiven_returnStoredUser() throws Exception {
@@ -155,6 +187,178 @@ public class UsersControllerWebLayerTest {
         Assertions.assertEquals(expectedHttpStatusCode, mvcResult.getResponse().getStatus(), "200 OK status code should be returned");
         Assertions.assertEquals(requestModel.getFirstName(), returnedUser.getFirstName(), "FirstName should match");
         Assertions.assertFalse(returnedUser.getUserId().isEmpty(), "UserId should not be empty");
+        Assertions.assertEquals("\"" + storedUser.getUserId() + "-0\"", mvcResult.getResponse().getHeader(HttpHeaders.ETAG), "ETag should carry userId and version");
+    }
+
+    @DisplayName("Get UserId By Email")
+    @Test
+    void testGetUserIdByEmail_whenEmailNameGiven_returnsUserIdOnly() throws Exception {
+        // Arrange
+        String userId = UUID.randomUUID().toString();
+        when(usersService.getUserIdByEmail("shilpi@pagli.com")).thenReturn(userId);
+
+        RequestBuilder requestBuilder = MockMvcRequestBuilders.get("/users/email/userId")
+                .queryParam("emailName", "shilpi@pagli.com")
+                .accept(MediaType.TEXT_PLAIN);
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(requestBuilder).andReturn();
+
+        // Assert
+        Assertions.assertEquals(HttpStatus.OK.value(), mvcResult.getResponse().getStatus(), "200 OK status code should be returned");
+        Assertions.assertEquals(userId, mvcResult.getResponse().getContentAsString(), "Only the userId should be returned");
+        verify(usersService, never()).getUser(anyString());
+    }
+
+    @DisplayName("Get User By UserId - matching ETag")
+    @Test
+    void testGetUserByUserId_whenETagMatches_returnNotModifiedWithoutLoadingUser() throws Exception {
+        // Arrange
+        String userId = UUID.randomUUID().toString();
+        when(usersService.getUserVersionByUserId(userId)).thenReturn(new UserVersion(userId, 3L));
+
+        RequestBuilder requestBuilder = MockMvcRequestBuilders.get("/users/" + userId)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"" + userId + "-3\"")
+                .accept(MediaType.APPLICATION_JSON);
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(requestBuilder).andReturn();
+
+        // Assert
+        Assertions.assertEquals(HttpStatus.NOT_MODIFIED.value(), mvcResult.getResponse().getStatus(), "304 Not Modified status code should be returned");
+        Assertions.assertEquals("", mvcResult.getResponse().getContentAsString(), "No body should be sent");
+        verify(usersService, never()).getUserByUserId(anyString());
+    }
+
+    @DisplayName("Get User By UserId - stale ETag")
+    @Test
+    void testGetUserByUserId_whenETagIsStale_returnUpdatedUser() throws Exception {
+        // Arrange
+        UserDto storedUser = new ModelMapper().map(requestModel, UserDto.class);
+        storedUser.setUserId(UUID.randomUUID().toString());
+        storedUser.setVersion(4L);
+        when(usersService.getUserVersionByUserId(storedUser.getUserId())).thenReturn(new UserVersion(storedUser.getUserId(), 4L));
+        when(usersService.getUserByUserId(storedUser.getUserId())).thenReturn(storedUser);
+
+        RequestBuilder requestBuilder = MockMvcRequestBuilders.get("/users/" + storedUser.getUserId())
+                .header(HttpHeaders.IF_NONE_MATCH, "\"" + storedUser.getUserId() + "-3\"")
+                .accept(MediaType.APPLICATION_JSON);
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(requestBuilder).andReturn();
+
+        // Assert
+        Assertions.assertEquals(HttpStatus.OK.value(), mvcResult.getResponse().getStatus(), "200 OK status code should be returned");
+        Assertions.assertEquals("\"" + storedUser.getUserId() + "-4\"", mvcResult.getResponse().getHeader(HttpHeaders.ETAG), "Current ETag should be returned");
+    }
+
+    @DisplayName("Get Users - page * limit past the int range")
+    @Test
+    void testGetUsers_whenPageTimesLimitOverflows_returnBadRequest() throws Exception {
+        // Arrange
+        RequestBuilder requestBuilder = MockMvcRequestBuilders.get("/users")
+                .queryParam("page", String.valueOf(Integer.MAX_VALUE))
+                .queryParam("limit", "2")
+                .accept(MediaType.APPLICATION_JSON);
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(requestBuilder).andReturn();
+
+        // Assert
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST.value(), mvcResult.getResponse().getStatus(), "Incorrect HTTP Status Code Returned");
+        verify(usersService, never()).getUsers(Mockito.anyInt(), Mockito.anyInt());
+    }
+
+    @DisplayName("Get Users After cursor - zero limit")
+    @Test
+    void testGetUsersAfter_whenLimitZero_returnBadRequest() throws Exception {
+        // Arrange
+        RequestBuilder requestBuilder = MockMvcRequestBuilders.get("/users")
+                .queryParam("after", "")
+                .queryParam("limit", "0")
+                .accept(MediaType.APPLICATION_JSON);
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(requestBuilder).andReturn();
+
+        // Assert
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST.value(), mvcResult.getResponse().getStatus(), "Incorrect HTTP Status Code Returned");
+        verify(usersService, never()).getUsersAfter(Mockito.anyLong(), Mockito.anyInt());
+    }
+
+    @DisplayName("Search Users - negative page")
+    @Test
+    void testSearchUsers_whenPageNegative_returnBadRequest() throws Exception {
+        // Arrange
+        RequestBuilder requestBuilder = MockMvcRequestBuilders.get("/users/search")
+                .queryParam("q", "patel")
+                .queryParam("page", "-1")
+                .accept(MediaType.APPLICATION_JSON);
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(requestBuilder).andReturn();
+
+        // Assert
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST.value(), mvcResult.getResponse().getStatus(), "Incorrect HTTP Status Code Returned");
+        verify(usersService, never()).searchUsers(anyString(), Mockito.anyInt(), Mockito.anyInt());
+    }
+
+    @DisplayName("Export Users as CSV")
+    @Test
+    void testExportUsers_whenCsvFormatGiven_streamsUserRows() throws Exception {
+        // Arrange
+        UserDto storedUser = new ModelMapper().map(requestModel, UserDto.class);
+        storedUser.setUserId(UUID.randomUUID().toString());
+        doAnswer(invocation -> {
+            Consumer<UserDto> consumer = invocation.getArgument(0);
+            consumer.accept(storedUser);
+            return null;
+        }).when(usersService).exportUsers(any());
+
+        RequestBuilder requestBuilder = MockMvcRequestBuilders.get("/users/export")
+                .queryParam("format", "csv");
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(requestBuilder).andExpect(request().asyncStarted()).andReturn();
+        mvcResult.getAsyncResult();
+        String[] rows = mvcResult.getResponse().getContentAsString().split("\n");
+
+        // Assert
+        Assertions.assertEquals(2, rows.length, "Header and 1 user row should be written");
+        Assertions.assertEquals("userId,firstName,lastName,email", rows[0], "CSV header should match");
+        Assertions.assertTrue(rows[1].startsWith(storedUser.getUserId()), "User row should start with the userId");
+    }
+
+    @DisplayName("Batch User Creation - invalid item reported, valid item created")
+    @Test
+    void testCreateUsers_whenOneItemInvalid_returnsPerItemResults() throws Exception {
+        // Arrange
+        UserDetailsRequestModel invalidModel = new UserDetailsRequestModel();
+        invalidModel.setFirstName("A");
+        invalidModel.setLastName("Patel");
+        invalidModel.setEmail("a@pagli.com");
+        invalidModel.setPassword("12345678");
+        invalidModel.setRepeatPassword("12345678");
+
+        UserDto createdUser = new ModelMapper().map(requestModel, UserDto.class);
+        createdUser.setUserId(UUID.randomUUID().toString());
+        when(usersService.createUsers(anyList())).thenReturn(Collections.singletonList(UserBatchResult.created(createdUser)));
+
+        RequestBuilder requestBuilder = MockMvcRequestBuilders.post("/users/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(Arrays.asList(invalidModel, requestModel)));
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(requestBuilder).andReturn();
+        JsonNode results = new ObjectMapper().readTree(mvcResult.getResponse().getContentAsString());
+
+        // Assert
+        Assertions.assertEquals(HttpStatus.OK.value(), mvcResult.getResponse().getStatus(), "200 OK status code should be returned");
+        Assertions.assertEquals(2, results.size(), "There should be 1 result per submitted user");
+        Assertions.assertEquals("INVALID", results.get(0).get("status").asText(), "First user should be rejected");
+        Assertions.assertEquals("CREATED", results.get(1).get("status").asText(), "Second user should be created");
+        Assertions.assertEquals(1, results.get(1).get("index").asInt(), "Result index should match the submitted position");
     }
 
 }
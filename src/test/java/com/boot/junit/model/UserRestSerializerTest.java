@@ -0,0 +1,76 @@
+package com.boot.junit.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.BeanSerializerFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.JsonTest;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Compares against Boot's auto-configured ObjectMapper, which carries UserRestSerializer through @JsonComponent.
+// The expected output comes from a copy of that mapper with the plain bean serializers, so both share every
+// spring.jackson.* setting and only the UserRest serializer differs.
+@JsonTest
+public class UserRestSerializerTest {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @DisplayName("UserRest list serialized like the bean serializer")
+    @ParameterizedTest
+    @EnumSource(value = JsonInclude.Include.class, names = {"ALWAYS", "NON_NULL", "NON_ABSENT", "NON_EMPTY"})
+    void testSerialize_whenUserListGiven_matchesDefaultSerialization(JsonInclude.Include inclusion) throws Exception {
+        // Arrange
+        UserRest user1 = new UserRest();
+        user1.setUserId("1");
+        user1.setFirstName("Shilpi");
+        user1.setLastName("Patel");
+        user1.setEmail("shilpi@pagli.com");
+
+        UserRest user2 = new UserRest();
+        user2.setUserId("2");
+        user2.setFirstName("Ani \"rudh\"");
+        user2.setLastName("");
+        List<UserRest> users = Arrays.asList(user1, user2);
+        ObjectMapper customMapper = objectMapper.copy().setSerializationInclusion(inclusion);
+
+        // Act
+        String json = customMapper.writeValueAsString(users);
+
+        // Assert
+        Assertions.assertEquals(defaultMapper(customMapper).writeValueAsString(users), json,
+                "Custom serializer output should match the default with inclusion " + inclusion);
+    }
+
+    @DisplayName("UserRest page serialized like the bean serializer")
+    @ParameterizedTest
+    @EnumSource(value = JsonInclude.Include.class, names = {"ALWAYS", "NON_NULL"})
+    void testSerialize_whenUserPageGiven_matchesDefaultSerialization(JsonInclude.Include inclusion) throws Exception {
+        // Arrange
+        UserRest user = new UserRest();
+        user.setUserId("1");
+        user.setEmail("shilpi@pagli.com");
+        UserPageRest page = new UserPageRest();
+        page.setUsers(Arrays.asList(user));
+        page.setNextCursor("aWQ6MQ");
+        ObjectMapper customMapper = objectMapper.copy().setSerializationInclusion(inclusion);
+
+        // Act
+        String json = customMapper.writeValueAsString(page);
+
+        // Assert
+        Assertions.assertEquals(defaultMapper(customMapper).writeValueAsString(page), json,
+                "Custom serializer output should match the default with inclusion " + inclusion);
+    }
+
+    // Same configuration, but without the serializers modules added (UserRestSerializer among them)
+    private static ObjectMapper defaultMapper(ObjectMapper mapper) {
+        return mapper.copy().setSerializerFactory(BeanSerializerFactory.instance);
+    }
+}
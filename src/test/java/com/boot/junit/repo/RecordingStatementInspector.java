@@ -0,0 +1,32 @@
+package com.boot.junit.repo;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Keeps every SQL statement Hibernate prepares, so tests can look at what a finder really sends to the database.
+// Hibernate instantiates it from hibernate.session_factory.statement_inspector, hence the static list.
+public class RecordingStatementInspector implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    static void clear() {
+        STATEMENTS.clear();
+    }
+
+    // Last select recorded since clear(), fails when the finder never reached the database
+    static String lastSelect() {
+        for (int i = STATEMENTS.size() - 1; i >= 0; i--) {
+            String sql = STATEMENTS.get(i);
+            if (sql.trim().toLowerCase().startsWith("select")) return sql;
+        }
+        throw new AssertionError("No select was sent to the database, recorded " + STATEMENTS);
+    }
+}
@@ -0,0 +1,86 @@
+package com.boot.junit.repo;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.UUID;
+
+// Not a @DataJpaTest: each repository call must run in its own transaction and session,
+// otherwise the first-level cache would hide whether the second-level / query cache answered
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class UserEntitySecondLevelCacheTest {
+
+    @Autowired
+    private UsersRepository usersRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private UserEntity storedUser;
+
+    @BeforeEach
+    void setup() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        UserEntity userEntity = new UserEntity();
+        userEntity.setUserId(UUID.randomUUID().toString());
+        userEntity.setFirstName("Shilpi");
+        userEntity.setLastName("Cached" + userEntity.getUserId());
+        userEntity.setEmail(userEntity.getUserId() + "@cache.com");
+        storedUser = usersRepository.saveAndFlush(userEntity);
+    }
+
+    @DisplayName("Repeated findByUserId issues no SQL")
+    @Test
+    void testFindByUserId_whenRepeated_isServedFromCache() {
+        // Arrange
+        usersRepository.findByUserId(storedUser.getUserId());
+        long statementsAfterFirstLookup = statistics.getPrepareStatementCount();
+        long queryCacheHits = statistics.getQueryCacheHitCount();
+
+        // Act
+        UserEntity cachedUser = usersRepository.findByUserId(storedUser.getUserId());
+
+        // Assert
+        Assertions.assertEquals(storedUser.getEmail(), cachedUser.getEmail(), "Email should match");
+        Assertions.assertEquals(statementsAfterFirstLookup, statistics.getPrepareStatementCount(), "No SQL should be issued for a repeated lookup");
+        Assertions.assertTrue(statistics.getQueryCacheHitCount() > queryCacheHits, "Lookup should be a query cache hit");
+    }
+
+    @DisplayName("Repeated findByEmail issues no SQL")
+    @Test
+    void testFindByEmail_whenRepeated_isServedFromCache() {
+        // Arrange
+        usersRepository.findByEmail(storedUser.getEmail());
+        long statementsAfterFirstLookup = statistics.getPrepareStatementCount();
+
+        // Act
+        usersRepository.findByEmail(storedUser.getEmail());
+
+        // Assert
+        Assertions.assertEquals(statementsAfterFirstLookup, statistics.getPrepareStatementCount(), "No SQL should be issued for a repeated lookup");
+    }
+
+    @DisplayName("findById served from the entity region")
+    @Test
+    void testFindById_whenEntityCached_hitsSecondLevelCache() {
+        // Arrange
+        long secondLevelHits = statistics.getSecondLevelCacheHitCount();
+        long statementsBefore = statistics.getPrepareStatementCount();
+
+        // Act
+        usersRepository.findById(storedUser.getId());
+
+        // Assert
+        Assertions.assertTrue(statistics.getSecondLevelCacheHitCount() > secondLevelHits, "Entity should come from the second-level cache");
+        Assertions.assertEquals(statementsBefore, statistics.getPrepareStatementCount(), "No SQL should be issued for a cached entity");
+    }
+}
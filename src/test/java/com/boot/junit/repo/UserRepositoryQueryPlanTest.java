@@ -0,0 +1,124 @@
+package com.boot.junit.repo;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.Arrays;
+
+// Runs each UsersRepository finder, takes the SQL Hibernate generated for it from RecordingStatementInspector,
+// binds the parameters as literals and asks H2 to EXPLAIN it, checking none of them falls back to a table scan.
+// The query cache is off so every finder call reaches the database.
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.boot.junit.repo.RecordingStatementInspector",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+public class UserRepositoryQueryPlanTest {
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private UsersRepository userRepo;
+
+    @BeforeEach
+    void setup() {
+        UserEntity userEntity = new UserEntity();
+        userEntity.setUserId("1");
+        userEntity.setFirstName("Shilpi");
+        userEntity.setLastName("Patel");
+        userEntity.setEmail("shilpi@pagli.com");
+        testEntityManager.persistAndFlush(userEntity);
+        testEntityManager.clear();
+        RecordingStatementInspector.clear();
+    }
+
+    @DisplayName("findByEmail uses the email unique index")
+    @Test
+    void testFindByEmail_queryPlan_usesIndex() {
+        userRepo.findByEmail("shilpi@pagli.com");
+
+        assertUsesIndex("shilpi@pagli.com");
+    }
+
+    @DisplayName("findByUserId uses the userId unique index")
+    @Test
+    void testFindByUserId_queryPlan_usesIndex() {
+        userRepo.findByUserId("1");
+
+        assertUsesIndex("1");
+    }
+
+    @DisplayName("findByLastName uses idx_users_last_name")
+    @Test
+    void testFindByLastName_queryPlan_usesIndex() {
+        userRepo.findByLastName("Patel");
+
+        String plan = assertUsesIndex("Patel");
+        Assertions.assertTrue(plan.contains("IDX_USERS_LAST_NAME"), "Plan should use idx_users_last_name but was " + plan);
+    }
+
+    @DisplayName("Email suffix search uses idx_users_email_reversed")
+    @Test
+    void testFindByEmailEndsWith_queryPlan_usesIndex() {
+        userRepo.findByEmailEndsWith("@pagli.com");
+
+        // Spring Data binds the LIKE pattern and its escape character
+        String plan = assertUsesIndex(UserEntity.reverse("@pagli.com") + "%", "\\");
+        Assertions.assertTrue(plan.contains("IDX_USERS_EMAIL_REVERSED"), "Plan should use idx_users_email_reversed but was " + plan);
+    }
+
+    @DisplayName("findExistingEmails uses the email unique index")
+    @Test
+    void testFindExistingEmails_queryPlan_usesIndex() {
+        userRepo.findExistingEmails(Arrays.asList("shilpi@pagli.com", "patel.anirudh@gmail.com"));
+
+        assertUsesIndex("shilpi@pagli.com", "patel.anirudh@gmail.com");
+    }
+
+    @DisplayName("Keyset page seeks on the primary key")
+    @Test
+    void testFindSummariesAfter_queryPlan_usesIndex() {
+        userRepo.findSummariesAfter(0L, PageRequest.of(0, 20));
+
+        // H2 dialect appends the limit as the last parameter
+        assertUsesIndex(0L, 20);
+    }
+
+    // EXPLAINs the last select the finder sent, with its ? placeholders replaced by the given values in order
+    private String assertUsesIndex(Object... parameters) {
+        String sql = bind(RecordingStatementInspector.lastSelect(), parameters);
+        String plan = String.valueOf(testEntityManager.getEntityManager()
+                .createNativeQuery("EXPLAIN " + sql)
+                .getSingleResult());
+
+        Assertions.assertFalse(plan.contains("tableScan"), "Query should not scan the users table but plan was " + plan);
+        return plan;
+    }
+
+    private static String bind(String sql, Object... parameters) {
+        StringBuilder bound = new StringBuilder(sql.length() + 64);
+        int parameter = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c != '?') {
+                bound.append(c);
+                continue;
+            }
+            Assertions.assertTrue(parameter < parameters.length, "More placeholders than parameters in " + sql);
+            bound.append(literal(parameters[parameter++]));
+        }
+        Assertions.assertEquals(parameters.length, parameter, "Parameter count should match the placeholders in " + sql);
+        return bound.toString();
+    }
+
+    private static String literal(Object value) {
+        if (value instanceof Number) return value.toString();
+        return "'" + String.valueOf(value).replace("'", "''") + "'";
+    }
+}
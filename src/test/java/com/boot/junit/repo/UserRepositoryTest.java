@@ -1,5 +1,6 @@
 package com.boot.junit.repo;
 
+import com.boot.junit.shared.UserVersion;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -7,6 +8,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 
 import java.util.List;
 
@@ -85,4 +87,52 @@ public class UserRepositoryTest {
         Assertions.assertEquals(1, returnedUsers.size(),"There should be only 1 user in the list");
         Assertions.assertTrue(returnedUsers.get(0).getEmail().endsWith(emailPatternName), "User's email does not match with target email name pattern");
     }
+
+    @DisplayName("findSummariesAfter")
+    @Test
+    void testFindSummariesAfter_whenLastSeenIdGiven_returnsNextUsers() {
+        // Arrange
+        testEntityManager.persistAndFlush(userEntity2);
+
+        // Act
+        List<UserSummary> firstPage = userRepo.findSummariesAfter(0L, PageRequest.of(0, 1));
+        List<UserSummary> secondPage = userRepo.findSummariesAfter(firstPage.get(0).getId(), PageRequest.of(0, 1));
+
+        // Assert
+        Assertions.assertEquals(1, firstPage.size(), "First page should hold 1 user");
+        Assertions.assertEquals(userEntity1.getUserId(), firstPage.get(0).getUserId(), "First page should start with the first user");
+        Assertions.assertEquals(userEntity2.getUserId(), secondPage.get(0).getUserId(), "Second page should continue after the cursor");
+    }
+
+    @DisplayName("findSummaries")
+    @Test
+    void testFindSummaries_whenPageRequested_returnsProjectedUsers() {
+        // Arrange
+        testEntityManager.persistAndFlush(userEntity2);
+
+        // Act
+        List<UserSummary> summaries = userRepo.findSummaries(PageRequest.of(0, 10));
+
+        // Assert
+        Assertions.assertEquals(2, summaries.size(), "There should be 2 users in the page");
+        Assertions.assertEquals(userEntity1.getEmail(), summaries.get(0).getEmail(), "Email should match");
+        Assertions.assertEquals(userEntity2.getFirstName(), summaries.get(1).getFirstName(), "FirstName should match");
+    }
+
+    @DisplayName("findVersionByEmail")
+    @Test
+    void testFindVersionByEmail_whenUserUpdated_returnsBumpedVersion() {
+        // Arrange
+        long initialVersion = userRepo.findVersionByEmail(userEntity1.getEmail()).getVersion();
+        userEntity1.setFirstName("Shilpa");
+        testEntityManager.persistAndFlush(userEntity1);
+
+        // Act
+        UserVersion returnedVersion = userRepo.findVersionByEmail(userEntity1.getEmail());
+
+        // Assert
+        Assertions.assertEquals(userEntity1.getUserId(), returnedVersion.getUserId(), "UserId should match");
+        Assertions.assertEquals(initialVersion + 1, returnedVersion.getVersion(), "Version should be bumped by the update");
+        Assertions.assertNull(userRepo.findVersionByEmail("nobody@pagli.com"), "Unknown email should have no version");
+    }
 }
@@ -0,0 +1,253 @@
+package com.boot.junit.service;
+
+import com.boot.junit.config.UserShardRouter;
+import com.boot.junit.exceptions.UsersServiceException;
+import com.boot.junit.repo.UserDirectoryRepository;
+import com.boot.junit.shared.UserBatchResult;
+import com.boot.junit.shared.UserDto;
+import com.boot.junit.shared.UserVersion;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+
+// One directory and three shard databases, all embedded H2. Each test works on its own email domain
+// because the databases outlive a single test. The in-process user directory is on, as it would be in front of shards.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=" + ShardedUsersServiceTest.DIRECTORY_URL,
+        "users.datasource.shards.enabled=true",
+        "users.datasource.shards.instances[0].url=jdbc:h2:mem:users-shard-0;DB_CLOSE_DELAY=-1",
+        "users.datasource.shards.instances[0].username=sa",
+        "users.datasource.shards.instances[1].url=jdbc:h2:mem:users-shard-1;DB_CLOSE_DELAY=-1",
+        "users.datasource.shards.instances[1].username=sa",
+        "users.datasource.shards.instances[2].url=jdbc:h2:mem:users-shard-2;DB_CLOSE_DELAY=-1",
+        "users.datasource.shards.instances[2].username=sa",
+        "users.directory.enabled=true"
+})
+public class ShardedUsersServiceTest {
+
+    static final String DIRECTORY_URL = "jdbc:h2:mem:users-shard-directory;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private UsersService usersService;
+
+    @Autowired
+    private UserShardRouter router;
+
+    @SpyBean
+    private UserDirectoryRepository directoryRepository;
+
+    private JdbcTemplate directory;
+    private List<JdbcTemplate> shards;
+
+    @BeforeEach
+    void setup() {
+        directory = new JdbcTemplate(new DriverManagerDataSource(DIRECTORY_URL, "sa", ""));
+        shards = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            shards.add(new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:users-shard-" + i + ";DB_CLOSE_DELAY=-1", "sa", "")));
+        }
+    }
+
+    @DisplayName("Created user lives on its hashed shard only and is found by email through the directory")
+    @Test
+    void testCreateUser_whenCreated_storesOnOwningShardAndResolvesEmail() {
+        // Act
+        UserDto createdUser = usersService.createUser(user("Shilpi", "shilpi@create.com"));
+        UserDto returnedUser = usersService.getUser("shilpi@create.com");
+
+        // Assert
+        int owningShard = router.getShards().indexOf(router.shardFor(createdUser.getUserId()));
+        for (int i = 0; i < shards.size(); i++) {
+            Integer count = shards.get(i).queryForObject("select count(*) from users where user_id = ?", Integer.class, createdUser.getUserId());
+            Assertions.assertEquals(i == owningShard ? 1 : 0, count, "User should be stored on shard " + owningShard + " only");
+        }
+        Assertions.assertEquals(createdUser.getUserId(), directory.queryForObject("select user_id from user_directory where email = ?",
+                String.class, "shilpi@create.com"), "Directory should map the email to the userId");
+        Assertions.assertEquals(createdUser.getUserId(), returnedUser.getUserId(), "Email lookup should return the created user");
+        Assertions.assertEquals(createdUser.getUserId(), usersService.getUserByUserId(createdUser.getUserId()).getUserId(), "UserId lookup should return the created user");
+    }
+
+    @DisplayName("Email already used on any shard is rejected")
+    @Test
+    void testCreateUser_whenEmailExists_throwsUsersServiceException() {
+        // Arrange
+        usersService.createUser(user("Anirudh", "anirudh@duplicate.com"));
+
+        // Act & Assert
+        Assertions.assertThrows(UsersServiceException.class, () -> usersService.createUser(user("Other", "anirudh@duplicate.com")),
+                "Duplicate email should be rejected");
+        Assertions.assertEquals(1, directory.queryForObject("select count(*) from user_directory where email = ?", Integer.class,
+                "anirudh@duplicate.com"), "Directory should hold the email once");
+    }
+
+    @DisplayName("Batch create spreads users over the shards and reports duplicates in place")
+    @Test
+    void testCreateUsers_whenBatchHasDuplicate_createsRestInOrder() {
+        // Arrange
+        List<UserDto> batch = Arrays.asList(user("A", "a@batch.com"), user("B", "b@batch.com"), user("A", "a@batch.com"),
+                user("C", "c@batch.com"), user("D", "d@batch.com"));
+
+        // Act
+        List<UserBatchResult> results = usersService.createUsers(batch);
+
+        // Assert
+        Assertions.assertEquals(5, results.size(), "There should be one result per user");
+        Assertions.assertEquals(UserBatchResult.Status.DUPLICATE, results.get(2).getStatus(), "Repeated email should be a duplicate");
+        for (int i : new int[]{0, 1, 3, 4}) {
+            Assertions.assertEquals(UserBatchResult.Status.CREATED, results.get(i).getStatus(), "User " + i + " should be created");
+            Assertions.assertEquals(batch.get(i).getEmail(), results.get(i).getUser().getEmail(), "Result " + i + " should match its input");
+        }
+    }
+
+    @DisplayName("Email claimed concurrently during a batch is reported as a duplicate, the rest is created")
+    @Test
+    void testCreateUsers_whenEmailClaimedConcurrently_marksItDuplicate() {
+        // Arrange
+        AtomicBoolean raced = new AtomicBoolean();
+        // The spy wraps a JDK proxy, which has no real method to call. Its default answer delegates to the proxy.
+        Answer<?> repository = Mockito.mockingDetails(directoryRepository).getMockCreationSettings().getDefaultAnswer();
+        doAnswer(invocation -> {
+            Object existingEmails = repository.answer(invocation);
+            if (raced.compareAndSet(false, true)) {
+                CompletableFuture.runAsync(() -> usersService.createUser(user("Racer", "racer@claim-race.com"))).join();
+            }
+            return existingEmails;
+        }).when(directoryRepository).findExistingEmails(anyCollection());
+        List<UserDto> batch = Arrays.asList(user("A", "a@claim-race.com"), user("Racer", "racer@claim-race.com"),
+                user("C", "c@claim-race.com"));
+
+        // Act
+        List<UserBatchResult> results = usersService.createUsers(batch);
+
+        // Assert
+        Assertions.assertTrue(raced.get(), "Concurrent create should have run");
+        Assertions.assertEquals(UserBatchResult.Status.CREATED, results.get(0).getStatus(), "First user should be created");
+        Assertions.assertEquals(UserBatchResult.Status.DUPLICATE, results.get(1).getStatus(), "Concurrently claimed email should be a duplicate");
+        Assertions.assertEquals(UserBatchResult.Status.CREATED, results.get(2).getStatus(), "Third user should be created");
+        for (UserDto user : batch) {
+            Assertions.assertEquals(1, directory.queryForObject("select count(*) from user_directory where email = ?", Integer.class,
+                    user.getEmail()), "Email " + user.getEmail() + " should be claimed once");
+        }
+        Assertions.assertEquals("Racer", usersService.getUser("racer@claim-race.com").getFirstName(), "Concurrent create should keep the email");
+    }
+
+    @DisplayName("A failing shard releases the directory claims of every user it did not store")
+    @Test
+    void testCreateUsers_whenShardFails_releasesClaimsOfUnstoredUsers() {
+        // Arrange
+        List<UserDto> batch = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            batch.add(user("Down" + i, "down" + i + "@failing-shard.com"));
+        }
+        JdbcTemplate failingShard = shards.get(1);
+        failingShard.execute("alter table users rename to users_down");
+
+        // Act
+        try {
+            Assertions.assertThrows(RuntimeException.class, () -> usersService.createUsers(batch), "Shard failure should surface");
+        } finally {
+            failingShard.execute("alter table users_down rename to users");
+        }
+
+        // Assert
+        int stored = 0;
+        for (UserDto user : batch) {
+            int onShards = 0;
+            for (JdbcTemplate shard : shards) {
+                onShards += shard.queryForObject("select count(*) from users where email = ?", Integer.class, user.getEmail());
+            }
+            Assertions.assertEquals(onShards, directory.queryForObject("select count(*) from user_directory where email = ?",
+                    Integer.class, user.getEmail()), "Email " + user.getEmail() + " should stay claimed only when a shard stored it");
+            stored += onShards;
+        }
+        Assertions.assertTrue(stored < batch.size(), "Users of the failing shard should not be stored");
+    }
+
+    @DisplayName("Email lookups resolve the userId from the in-process directory before the directory database")
+    @Test
+    void testGetUser_whenEmailInUserDirectory_skipsDirectoryDatabase() {
+        // Arrange
+        UserDto createdUser = usersService.createUser(user("Shilpi", "shilpi@key-directory.com"));
+        directory.update("delete from user_directory where email = ?", "shilpi@key-directory.com");
+
+        // Act
+        UserDto returnedUser = usersService.getUser("shilpi@key-directory.com");
+        UserVersion userVersion = usersService.getUserVersion("shilpi@key-directory.com");
+        String userId = usersService.getUserIdByEmail("shilpi@key-directory.com");
+
+        // Assert
+        Assertions.assertEquals(createdUser.getUserId(), returnedUser.getUserId(), "getUser should find the user without the directory row");
+        Assertions.assertEquals(createdUser.getUserId(), userVersion.getUserId(), "getUserVersion should find the user without the directory row");
+        Assertions.assertEquals(createdUser.getUserId(), userId, "getUserIdByEmail should find the user without the directory row");
+    }
+
+    @DisplayName("Pages merge all shards without gaps or repeats")
+    @Test
+    void testGetUsers_whenUsersOnSeveralShards_returnsMergedPages() {
+        // Arrange
+        Set<String> createdUserIds = new HashSet<>();
+        for (int i = 0; i < 12; i++) {
+            createdUserIds.add(usersService.createUser(user("Page" + i, "page" + i + "@scatter.com")).getUserId());
+        }
+        int total = 0;
+        for (JdbcTemplate shard : shards) {
+            total += shard.queryForObject("select count(*) from users", Integer.class);
+        }
+
+        // Act
+        Set<String> pagedUserIds = new HashSet<>();
+        List<UserDto> allUsers = new ArrayList<>();
+        int limit = 5;
+        for (int page = 1; (page - 1) * limit < total; page++) {
+            allUsers.addAll(usersService.getUsers(page, limit));
+        }
+        for (UserDto user : allUsers) {
+            pagedUserIds.add(user.getUserId());
+        }
+
+        // Assert
+        Assertions.assertEquals(total, allUsers.size(), "Pages should cover every stored user once");
+        Assertions.assertEquals(total, pagedUserIds.size(), "Pages should not repeat users");
+        Assertions.assertTrue(pagedUserIds.containsAll(createdUserIds), "Pages should include the users of every shard");
+        for (int i = 1; i < allUsers.size(); i++) {
+            Assertions.assertTrue(allUsers.get(i - 1).getId() <= allUsers.get(i).getId(), "Merged pages should be ordered by id");
+        }
+    }
+
+    @DisplayName("Pages past max-page-offset are rejected instead of read from every shard")
+    @Test
+    void testGetUsers_whenPageTooDeep_throwsIllegalArgumentException() {
+        // Act & Assert
+        Assertions.assertThrows(IllegalArgumentException.class, () -> usersService.getUsers(2001, 5),
+                "Page ending past row 10000 should be rejected");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> usersService.getUsers(Integer.MAX_VALUE, Integer.MAX_VALUE),
+                "Overflowing page * limit should be rejected");
+    }
+
+    private static UserDto user(String firstName, String email) {
+        UserDto user = new UserDto();
+        user.setFirstName(firstName);
+        user.setLastName("Patel");
+        user.setEmail(email);
+        return user;
+    }
+}
@@ -0,0 +1,112 @@
+package com.boot.junit.service;
+
+import com.boot.junit.repo.UserOutboxRepository;
+import com.boot.junit.shared.UserDto;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+// Outbox mode against the embedded H2 database: createUser only appends the event, the dispatcher delivers it
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "users.outbox.enabled=true",
+        "users.outbox.poll-interval=50ms",
+        "users.outbox.retry-backoff=10ms"
+})
+public class UserOutboxDispatcherTest {
+
+    @Autowired
+    private UsersService usersService;
+
+    @Autowired
+    private UserOutboxRepository outboxRepository;
+
+    @Autowired
+    private RecordingListener recordingListener;
+
+    @DisplayName("Created user is dispatched to listeners and removed from the outbox")
+    @Test
+    void testCreateUser_whenOutboxEnabled_dispatchesUserCreated() throws Exception {
+        // Arrange
+        UserDto user = user("Shilpi", "shilpi@outbox.com");
+
+        // Act
+        UserDto createdUser = usersService.createUser(user);
+
+        // Assert
+        Assertions.assertTrue(await(() -> recordingListener.received(createdUser.getUserId())), "Listener should receive the created user");
+        Assertions.assertTrue(await(() -> outboxRepository.count() == 0), "Delivered event should be removed from the outbox");
+        Assertions.assertTrue(await(() -> !usersService.searchUsers("shilpi@outbox.com", 0, 10).isEmpty()), "Search index should be updated by the dispatcher");
+    }
+
+    @DisplayName("Failing listener is retried")
+    @Test
+    void testCreateUser_whenListenerFailsOnce_retriesDelivery() throws Exception {
+        // Arrange
+        recordingListener.failNext("retry@outbox.com");
+
+        // Act
+        UserDto createdUser = usersService.createUser(user("Retry", "retry@outbox.com"));
+
+        // Assert
+        Assertions.assertTrue(await(() -> recordingListener.received(createdUser.getUserId())), "Listener should receive the user after a retry");
+        Assertions.assertTrue(await(() -> outboxRepository.count() == 0), "Delivered event should be removed from the outbox");
+    }
+
+    private static boolean await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) return false;
+            Thread.sleep(10);
+        }
+        return true;
+    }
+
+    private UserDto user(String firstName, String email) {
+        UserDto userDto = new UserDto();
+        userDto.setFirstName(firstName);
+        userDto.setLastName("Patel");
+        userDto.setEmail(email);
+        return userDto;
+    }
+
+    @TestConfiguration
+    static class RecordingListenerConfig {
+
+        @Bean
+        RecordingListener recordingListener() {
+            return new RecordingListener();
+        }
+    }
+
+    static class RecordingListener implements UserCreatedListener {
+
+        private final List<String> userIds = new CopyOnWriteArrayList<>();
+        private final Set<String> failingEmails = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public void onUserCreated(UserDto user) {
+            if (failingEmails.remove(user.getEmail()))
+                throw new IllegalStateException("Listener unavailable");
+            userIds.add(user.getUserId());
+        }
+
+        void failNext(String email) {
+            failingEmails.add(email);
+        }
+
+        boolean received(String userId) {
+            return userIds.contains(userId);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.boot.junit.service;
+
+import com.boot.junit.repo.UsersRepository;
+import com.boot.junit.shared.UserDto;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+public class UserSearchIndexTest {
+
+    private UserSearchIndex userSearchIndex;
+
+    @BeforeEach
+    void setup() {
+        userSearchIndex = new UserSearchIndex(Mockito.mock(UsersRepository.class));
+        userSearchIndex.add(user("1", "Shilpi", "Patel", "shilpi@pagli.com"));
+        userSearchIndex.add(user("2", "Anirudh", "Patel", "patel.anirudh@gmail.com"));
+        userSearchIndex.add(user("3", "Ravi", "Shah", "ravi@pagli.com"));
+    }
+
+    @DisplayName("Prefix of a repeated last name returns every match")
+    @Test
+    void testSearch_whenLastNamePrefixGiven_returnsAllMatches() {
+        List<UserDto> users = userSearchIndex.search("pat", 0, 10);
+
+        Assertions.assertEquals(2, users.size(), "Both Patel users should match");
+    }
+
+    @DisplayName("Every query word must match")
+    @Test
+    void testSearch_whenSeveralWordsGiven_intersectsMatches() {
+        List<UserDto> users = userSearchIndex.search("Patel shil", 0, 10);
+
+        Assertions.assertEquals(1, users.size(), "Only Shilpi Patel should match");
+        Assertions.assertEquals("1", users.get(0).getUserId(), "UserId should match");
+    }
+
+    @DisplayName("Email domain is searchable")
+    @Test
+    void testSearch_whenEmailDomainGiven_returnsUsersOfDomain() {
+        List<UserDto> users = userSearchIndex.search("pagli.com", 0, 10);
+
+        Assertions.assertEquals(2, users.size(), "Both pagli.com users should match");
+    }
+
+    @DisplayName("Results are paged")
+    @Test
+    void testSearch_whenLimitSmallerThanMatches_returnsRequestedPage() {
+        List<UserDto> firstPage = userSearchIndex.search("patel", 0, 1);
+        List<UserDto> secondPage = userSearchIndex.search("patel", 1, 1);
+
+        Assertions.assertEquals(1, firstPage.size(), "First page should hold 1 user");
+        Assertions.assertEquals(1, secondPage.size(), "Second page should hold 1 user");
+        Assertions.assertNotEquals(firstPage.get(0).getUserId(), secondPage.get(0).getUserId(), "Pages should not overlap");
+    }
+
+    @DisplayName("Pages walk the matches in name order without gaps or repeats")
+    @Test
+    void testSearch_whenPagedThroughManyMatches_returnsMatchesInOrder() {
+        List<UserDto> kumars = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            UserDto kumar = user("k" + i, "Kiran" + (char) ('a' + i * 7 % 26), "Kumar", "kiran" + i + "@pagli.com");
+            kumars.add(kumar);
+            userSearchIndex.add(kumar);
+        }
+        kumars.sort(Comparator.comparing(UserDto::getFirstName).thenComparing(UserDto::getEmail));
+
+        List<UserDto> paged = new ArrayList<>();
+        for (int page = 0; page < 7; page++) {
+            paged.addAll(userSearchIndex.search("pagli kumar", page, 6));
+        }
+
+        Assertions.assertEquals(kumars, paged, "Pages should list every Kumar once, ordered by first name then email");
+    }
+
+    @DisplayName("No match returns an empty list")
+    @Test
+    void testSearch_whenNothingMatches_returnsEmptyList() {
+        Assertions.assertTrue(userSearchIndex.search("zzz", 0, 10).isEmpty(), "No user should match");
+    }
+
+    @DisplayName("Page past the int range returns an empty list instead of wrapping around")
+    @Test
+    void testSearch_whenPageTimesLimitOverflows_returnsEmptyList() {
+        Assertions.assertTrue(userSearchIndex.search("patel", Integer.MAX_VALUE, 2).isEmpty(), "Overflowing page should be empty");
+    }
+
+    @DisplayName("Negative page or non-positive limit rejected")
+    @Test
+    void testSearch_whenPageNegativeOrLimitZero_throwsIllegalArgumentException() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> userSearchIndex.search("patel", -1, 10),
+                "Negative page should be rejected");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> userSearchIndex.search("patel", 0, 0),
+                "Zero limit should be rejected");
+    }
+
+    private UserDto user(String userId, String firstName, String lastName, String email) {
+        UserDto userDto = new UserDto();
+        userDto.setUserId(userId);
+        userDto.setFirstName(firstName);
+        userDto.setLastName(lastName);
+        userDto.setEmail(email);
+        return userDto;
+    }
+}
@@ -0,0 +1,56 @@
+package com.boot.junit.service;
+
+import com.boot.junit.repo.UsersRepository;
+import com.boot.junit.shared.UserBatchResult;
+import com.boot.junit.shared.UserDto;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Runs against the embedded H2 database so the set based duplicate check and batched inserts are exercised
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class UsersServiceBatchTest {
+
+    @Autowired
+    private UsersService usersService;
+
+    @Autowired
+    private UsersRepository usersRepository;
+
+    @DisplayName("Batch create skips existing and repeated emails")
+    @Test
+    void testCreateUsers_whenEmailsRepeat_marksDuplicates() {
+        // Arrange
+        usersService.createUser(user("Existing", "existing@batch.com"));
+        List<UserDto> users = Arrays.asList(
+                user("Shilpi", "shilpi@batch.com"),
+                user("Existing", "existing@batch.com"),
+                user("Anirudh", "anirudh@batch.com"),
+                user("Shilpi", "shilpi@batch.com"));
+
+        // Act
+        List<UserBatchResult> results = usersService.createUsers(users);
+
+        // Assert
+        Assertions.assertEquals(4, results.size(), "There should be 1 result per submitted user");
+        Assertions.assertEquals(UserBatchResult.Status.CREATED, results.get(0).getStatus(), "New email should be created");
+        Assertions.assertEquals(UserBatchResult.Status.DUPLICATE, results.get(1).getStatus(), "Stored email should be a duplicate");
+        Assertions.assertEquals(UserBatchResult.Status.CREATED, results.get(2).getStatus(), "New email should be created");
+        Assertions.assertEquals(UserBatchResult.Status.DUPLICATE, results.get(3).getStatus(), "Repeated email should be a duplicate");
+        Assertions.assertNotNull(usersRepository.findByEmail("anirudh@batch.com"), "Created user should be stored");
+        Assertions.assertTrue(results.get(2).getUser().getId() > 0, "DB Id value should be generated");
+    }
+
+    private UserDto user(String firstName, String email) {
+        UserDto userDto = new UserDto();
+        userDto.setFirstName(firstName);
+        userDto.setLastName("Patel");
+        userDto.setEmail(email);
+        return userDto;
+    }
+}
@@ -0,0 +1,185 @@
+package com.boot.junit.service;
+
+import com.boot.junit.exceptions.UsersServiceException;
+import com.boot.junit.repo.UserEntity;
+import com.boot.junit.repo.UsersRepository;
+import com.boot.junit.shared.UserDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Loads the service with its caching proxy, the repository is mocked so calls reaching the DB can be counted
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class UsersServiceCacheTest {
+
+    private static final int THREADS = 8;
+
+    @MockBean
+    private UsersRepository usersRepository;
+
+    @Autowired
+    private UsersService usersService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private UserEntity userEntity;
+
+    @BeforeEach
+    void setup() {
+        cacheManager.getCacheNames().forEach(cacheName -> cacheManager.getCache(cacheName).clear());
+
+        userEntity = new UserEntity();
+        userEntity.setId(1L);
+        userEntity.setUserId("1");
+        userEntity.setFirstName("Shilpi");
+        userEntity.setLastName("Patel");
+        userEntity.setEmail("shilpi@pagli.com");
+    }
+
+    @DisplayName("Repeated getUser served from cache")
+    @Test
+    void testGetUser_whenCalledTwice_hitsRepositoryOnce() {
+        // Arrange
+        when(usersRepository.findByEmail(userEntity.getEmail())).thenReturn(userEntity);
+
+        // Act
+        UserDto firstLookup = usersService.getUser(userEntity.getEmail());
+        UserDto secondLookup = usersService.getUser(userEntity.getEmail());
+
+        // Assert
+        Assertions.assertEquals(firstLookup.getUserId(), secondLookup.getUserId(), "UserId should match");
+        verify(usersRepository, times(1)).findByEmail(userEntity.getEmail());
+    }
+
+    @DisplayName("Concurrent getUser misses for the same email load it once")
+    @Test
+    void testGetUser_whenCalledConcurrently_hitsRepositoryOnce() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        when(usersRepository.findByEmail(userEntity.getEmail())).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return userEntity;
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        // Act
+        List<Future<UserDto>> lookups = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            lookups.add(executor.submit(() -> usersService.getUser(userEntity.getEmail())));
+        }
+        // late starters find the entry cached, which keeps the count at 1 either way
+        Thread.sleep(200);
+        release.countDown();
+        for (Future<UserDto> lookup : lookups) {
+            Assertions.assertEquals(userEntity.getUserId(), lookup.get(30, TimeUnit.SECONDS).getUserId(), "UserId should match");
+        }
+        executor.shutdown();
+
+        // Assert
+        verify(usersRepository, times(1)).findByEmail(userEntity.getEmail());
+    }
+
+    @DisplayName("Concurrent not found getUser lookups load once and count the joined callers")
+    @Test
+    void testGetUser_whenMissingEmailLookedUpConcurrently_coalescesMisses() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        when(usersRepository.findByEmail("missing@pagli.com")).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return null;
+        });
+        double coalescedBefore = meterRegistry.get("users.lookup.coalesced").tag("lookup", "getUser").functionCounter().count();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        // Act
+        List<Future<UserDto>> lookups = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            lookups.add(executor.submit(() -> usersService.getUser("missing@pagli.com")));
+        }
+        Thread.sleep(200);
+        release.countDown();
+        for (Future<UserDto> lookup : lookups) {
+            ExecutionException thrown = Assertions.assertThrows(ExecutionException.class, () -> lookup.get(30, TimeUnit.SECONDS),
+                    "Every caller should see the not found error");
+            Assertions.assertTrue(thrown.getCause() instanceof UsersServiceException, "Cause should be UsersServiceException");
+        }
+        executor.shutdown();
+
+        // Assert
+        verify(usersRepository, times(1)).findByEmail("missing@pagli.com");
+        double coalesced = meterRegistry.get("users.lookup.coalesced").tag("lookup", "getUser").functionCounter().count() - coalescedBefore;
+        Assertions.assertEquals(THREADS - 1, coalesced, "All but the loading caller should count as coalesced");
+    }
+
+    @DisplayName("Repeated getUserByUserId served from cache")
+    @Test
+    void testGetUserByUserId_whenCalledTwice_hitsRepositoryOnce() {
+        // Arrange
+        when(usersRepository.findByUserId(userEntity.getUserId())).thenReturn(userEntity);
+
+        // Act
+        usersService.getUserByUserId(userEntity.getUserId());
+        usersService.getUserByUserId(userEntity.getUserId());
+
+        // Assert
+        verify(usersRepository, times(1)).findByUserId(userEntity.getUserId());
+    }
+
+    @DisplayName("createUser evicts cached lastName lookup")
+    @Test
+    void testCreateUser_whenLastNameCached_evictsEntry() {
+        // Arrange
+        when(usersRepository.findByLastName(userEntity.getLastName())).thenReturn(userEntity);
+        when(usersRepository.saveAndFlush(any(UserEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        usersService.getUserByLastName(userEntity.getLastName());
+
+        UserDto newUser = new UserDto();
+        newUser.setFirstName("Anirudh");
+        newUser.setLastName(userEntity.getLastName());
+        newUser.setEmail("patel.anirudh@gmail.com");
+
+        // Act
+        usersService.createUser(newUser);
+        usersService.getUserByLastName(userEntity.getLastName());
+
+        // Assert
+        verify(usersRepository, times(2)).findByLastName(userEntity.getLastName());
+    }
+
+    @DisplayName("Not found lookups are not cached")
+    @Test
+    void testGetUser_whenUserMissing_isNotCached() {
+        // Arrange
+        when(usersRepository.findByEmail(Mockito.anyString())).thenReturn(null);
+
+        // Act & Assert
+        Assertions.assertThrows(RuntimeException.class, () -> usersService.getUser("missing@pagli.com"));
+        Assertions.assertThrows(RuntimeException.class, () -> usersService.getUser("missing@pagli.com"));
+        verify(usersRepository, times(2)).findByEmail("missing@pagli.com");
+    }
+}
@@ -0,0 +1,131 @@
+package com.boot.junit.service;
+
+import com.boot.junit.exceptions.UsersServiceException;
+import com.boot.junit.repo.UsersRepository;
+import com.boot.junit.shared.UserDto;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// createUser relies on the unique index on email, these tests race real inserts against the embedded H2 database
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class UsersServiceConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private UsersService usersService;
+
+    @Autowired
+    private UsersRepository usersRepository;
+
+    @DisplayName("Duplicate email rejected")
+    @Test
+    void testCreateUser_whenEmailAlreadyStored_throwsUsersServiceException() {
+        // Arrange
+        usersService.createUser(user("duplicate@concurrency.com"));
+
+        // Act & Assert
+        UsersServiceException thrown = Assertions.assertThrows(UsersServiceException.class,
+                () -> usersService.createUser(user("duplicate@concurrency.com")),
+                "Was expecting UsersServiceException to be thrown");
+        Assertions.assertEquals("Record already exists", thrown.getMessage(), "Exception message should match");
+    }
+
+    @DisplayName("Missing lastName is not reported as a duplicate")
+    @Test
+    void testCreateUser_whenLastNameMissing_throwsDataIntegrityViolationException() {
+        // Arrange
+        UserDto userDto = user("nolastname@concurrency.com");
+        userDto.setLastName(null);
+
+        // Act & Assert
+        Assertions.assertThrows(DataIntegrityViolationException.class, () -> usersService.createUser(userDto),
+                "NOT NULL violation should not be turned into Record already exists");
+        Assertions.assertNull(usersRepository.findByEmail("nolastname@concurrency.com"), "User should not be stored");
+    }
+
+    @DisplayName("Parallel creates with the same email store exactly one user")
+    @Test
+    void testCreateUser_whenSameEmailCreatedInParallel_onlyOneSucceeds() throws Exception {
+        // Arrange
+        String email = "race@concurrency.com";
+        CountDownLatch startGate = new CountDownLatch(1);
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        // Act
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                startGate.await();
+                try {
+                    usersService.createUser(user(email));
+                    created.incrementAndGet();
+                } catch (UsersServiceException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        startGate.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Assert
+        Assertions.assertEquals(1, created.get(), "Exactly 1 create should succeed");
+        Assertions.assertEquals(THREADS - 1, rejected.get(), "All other creates should be rejected as duplicates");
+        Assertions.assertNotNull(usersRepository.findByEmail(email), "Winning user should be stored");
+    }
+
+    @DisplayName("Parallel creates with distinct emails all succeed")
+    @Test
+    void testCreateUser_whenDistinctEmailsCreatedInParallel_allSucceed() throws Exception {
+        // Arrange
+        CountDownLatch startGate = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        // Act
+        List<Future<UserDto>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            String email = "parallel" + i + "@concurrency.com";
+            futures.add(executor.submit(() -> {
+                startGate.await();
+                return usersService.createUser(user(email));
+            }));
+        }
+        startGate.countDown();
+        for (Future<UserDto> future : futures) {
+            Assertions.assertTrue(future.get(30, TimeUnit.SECONDS).getId() > 0, "DB Id value should be generated");
+        }
+        executor.shutdown();
+
+        // Assert
+        for (int i = 0; i < THREADS; i++) {
+            Assertions.assertNotNull(usersRepository.findByEmail("parallel" + i + "@concurrency.com"), "User should be stored");
+        }
+    }
+
+    private UserDto user(String email) {
+        UserDto userDto = new UserDto();
+        userDto.setFirstName("Shilpi");
+        userDto.setLastName("Patel");
+        userDto.setEmail(email);
+        return userDto;
+    }
+}
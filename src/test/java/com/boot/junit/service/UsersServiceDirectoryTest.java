@@ -0,0 +1,60 @@
+package com.boot.junit.service;
+
+import com.boot.junit.exceptions.UsersServiceException;
+import com.boot.junit.repo.UsersRepository;
+import com.boot.junit.shared.UserKeyDirectory;
+import com.boot.junit.shared.UserVersion;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// User directory enabled, the repository is mocked so calls reaching the DB can be counted
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = "users.directory.enabled=true")
+public class UsersServiceDirectoryTest {
+
+    @MockBean
+    private UsersRepository usersRepository;
+
+    @Autowired
+    private UsersService usersService;
+
+    @Autowired
+    private UserKeyDirectory userKeyDirectory;
+
+    @DisplayName("getUserIdByEmail served by the directory")
+    @Test
+    void testGetUserIdByEmail_whenInDirectory_skipsRepository() {
+        // Arrange
+        userKeyDirectory.put(1L, "1", "shilpi@directory.com");
+
+        // Act
+        String userId = usersService.getUserIdByEmail("shilpi@directory.com");
+
+        // Assert
+        Assertions.assertEquals("1", userId, "UserId should come from the directory");
+        verify(usersRepository, never()).findVersionByEmail(anyString());
+    }
+
+    @DisplayName("getUserIdByEmail falls back to the repository on a directory miss")
+    @Test
+    void testGetUserIdByEmail_whenNotInDirectory_queriesRepository() {
+        // Arrange
+        when(usersRepository.findVersionByEmail("anirudh@directory.com")).thenReturn(new UserVersion("2", 0L));
+
+        // Act
+        String userId = usersService.getUserIdByEmail("anirudh@directory.com");
+
+        // Assert
+        Assertions.assertEquals("2", userId, "UserId should come from the repository");
+        Assertions.assertThrows(UsersServiceException.class, () -> usersService.getUserIdByEmail("nobody@directory.com"),
+                "Unknown email should not be found");
+    }
+}
@@ -0,0 +1,39 @@
+package com.boot.junit.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class UsersServiceMetricsTest {
+
+    @Autowired
+    private UsersService usersService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DisplayName("getUsers records service timer, mapping timer and result size")
+    @Test
+    void testGetUsers_whenCalled_recordsMetrics() {
+        // Act
+        usersService.getUsers(1, 5);
+
+        // Assert
+        Timer serviceTimer = meterRegistry.find("users.service").tag("method", "getUsers").timer();
+        Timer mappingTimer = meterRegistry.find("users.mapping").tag("query", "getUsers").timer();
+        DistributionSummary resultSize = meterRegistry.find("users.result.size").tag("query", "getUsers").summary();
+
+        Assertions.assertNotNull(serviceTimer, "users.service timer should be registered");
+        Assertions.assertTrue(serviceTimer.count() > 0, "users.service timer should have recorded the call");
+        Assertions.assertNotNull(mappingTimer, "users.mapping timer should be registered");
+        Assertions.assertTrue(mappingTimer.count() > 0, "users.mapping timer should have recorded the call");
+        Assertions.assertNotNull(resultSize, "users.result.size summary should be registered");
+        Assertions.assertTrue(resultSize.count() > 0, "users.result.size should have recorded the call");
+    }
+}
@@ -0,0 +1,66 @@
+package com.boot.junit.shared;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class AdaptiveConcurrencyLimitTest {
+
+    private static final long TARGET = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @DisplayName("Calls beyond the limit are refused")
+    @Test
+    void testTryAcquire_whenLimitReached_rejects() {
+        // Arrange
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10, TARGET, 0.5);
+
+        // Act
+        boolean first = limit.tryAcquire();
+        boolean second = limit.tryAcquire();
+        boolean third = limit.tryAcquire();
+
+        // Assert
+        Assertions.assertTrue(first && second, "Calls within the limit should be admitted");
+        Assertions.assertFalse(third, "Call beyond the limit should be rejected");
+        Assertions.assertEquals(2, limit.getInFlight(), "Rejected call should not be counted in flight");
+    }
+
+    @DisplayName("Slow calls shrink the limit down to the minimum")
+    @Test
+    void testRelease_whenLatencyAboveTarget_decreasesLimit() {
+        // Arrange
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(8, 2, 10, TARGET, 0.5);
+
+        // Act
+        limit.tryAcquire();
+        limit.release(TARGET * 2);
+        int afterOneSlowCall = limit.getLimit();
+        for (int i = 0; i < 10; i++) {
+            limit.tryAcquire();
+            limit.release(TARGET * 2);
+        }
+
+        // Assert
+        Assertions.assertEquals(4, afterOneSlowCall, "Limit should be halved");
+        Assertions.assertEquals(2, limit.getLimit(), "Limit should not drop below the minimum");
+    }
+
+    @DisplayName("Fast calls grow the limit up to the maximum")
+    @Test
+    void testRelease_whenLatencyUnderTarget_increasesLimit() {
+        // Arrange
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 4, TARGET, 0.5);
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            limit.tryAcquire();
+            limit.release(TARGET / 2);
+        }
+
+        // Assert
+        Assertions.assertEquals(4, limit.getLimit(), "Limit should grow up to the maximum");
+        Assertions.assertEquals(0, limit.getInFlight(), "Nothing should be left in flight");
+    }
+}
@@ -0,0 +1,92 @@
+package com.boot.junit.shared;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SingleFlightTest {
+
+    private static final int THREADS = 8;
+
+    @DisplayName("Concurrent calls for the same key run the loader once")
+    @Test
+    void testExecute_whenSameKeyCalledConcurrently_loadsOnce() throws Exception {
+        // Arrange
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        // Act
+        List<Future<String>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> singleFlight.execute("shilpi@pagli.com", () -> {
+                loads.incrementAndGet();
+                awaitQuietly(release);
+                return "loaded";
+            })));
+        }
+        // hold the first load until every other caller has joined it
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (singleFlight.coalescedCount() < THREADS - 1 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+
+        // Assert
+        for (Future<String> future : futures) {
+            Assertions.assertEquals("loaded", future.get(10, TimeUnit.SECONDS), "Every caller should get the shared result");
+        }
+        executor.shutdown();
+        Assertions.assertEquals(1, loads.get(), "Loader should run once");
+        Assertions.assertEquals(THREADS - 1, singleFlight.coalescedCount(), "All other calls should be coalesced");
+    }
+
+    @DisplayName("Sequential calls are not coalesced")
+    @Test
+    void testExecute_whenCalledSequentially_loadsEachTime() {
+        // Arrange
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        singleFlight.execute("key", loads::incrementAndGet);
+        singleFlight.execute("key", loads::incrementAndGet);
+
+        // Assert
+        Assertions.assertEquals(2, loads.get(), "Completed calls should not be reused");
+        Assertions.assertEquals(0, singleFlight.coalescedCount(), "Nothing should be coalesced");
+    }
+
+    @DisplayName("Loader exception reaches the caller")
+    @Test
+    void testExecute_whenLoaderThrows_rethrowsSameException() {
+        // Arrange
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        IllegalStateException failure = new IllegalStateException("User not found");
+
+        // Act & Assert
+        IllegalStateException thrown = Assertions.assertThrows(IllegalStateException.class,
+                () -> singleFlight.execute("key", () -> {
+                    throw failure;
+                }), "Was expecting IllegalStateException to be thrown");
+        Assertions.assertSame(failure, thrown, "Original exception should be rethrown");
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
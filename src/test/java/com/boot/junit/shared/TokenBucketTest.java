@@ -0,0 +1,52 @@
+package com.boot.junit.shared;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TokenBucketTest {
+
+    @DisplayName("Burst up to capacity, then rejected")
+    @Test
+    void testTryAcquire_whenCapacityUsed_rejects() {
+        // Arrange
+        AtomicLong clock = new AtomicLong();
+        TokenBucket bucket = new TokenBucket(3, 1, clock::get);
+
+        // Act
+        boolean first = bucket.tryAcquire();
+        bucket.tryAcquire();
+        boolean third = bucket.tryAcquire();
+        boolean fourth = bucket.tryAcquire();
+
+        // Assert
+        Assertions.assertTrue(first && third, "Calls within capacity should be admitted");
+        Assertions.assertFalse(fourth, "Call beyond capacity should be rejected");
+    }
+
+    @DisplayName("Tokens refill over time, never above capacity")
+    @Test
+    void testTryAcquire_whenTimePasses_refillsUpToCapacity() {
+        // Arrange
+        AtomicLong clock = new AtomicLong();
+        TokenBucket bucket = new TokenBucket(2, 10, clock::get);
+        bucket.tryAcquire();
+        bucket.tryAcquire();
+
+        // Act
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(150));
+        boolean afterOneToken = bucket.tryAcquire();
+        boolean beforeNextToken = bucket.tryAcquire();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        int admittedAfterIdle = 0;
+        while (bucket.tryAcquire()) admittedAfterIdle++;
+
+        // Assert
+        Assertions.assertTrue(afterOneToken, "One token should be refilled after 150ms at 10/s");
+        Assertions.assertFalse(beforeNextToken, "Second token should not be refilled yet");
+        Assertions.assertEquals(2, admittedAfterIdle, "Refill should be capped at capacity");
+    }
+}
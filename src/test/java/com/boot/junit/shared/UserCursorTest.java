@@ -0,0 +1,27 @@
+package com.boot.junit.shared;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class UserCursorTest {
+
+    @DisplayName("Cursor round trip")
+    @Test
+    void testDecode_whenEncodedIdGiven_returnsSameId() {
+        Assertions.assertEquals(42L, UserCursor.decode(UserCursor.encode(42L)), "Decoded id should match");
+    }
+
+    @DisplayName("Empty cursor starts from the beginning")
+    @Test
+    void testDecode_whenEmptyCursorGiven_returnsZero() {
+        Assertions.assertEquals(0L, UserCursor.decode(""), "Empty cursor should decode to 0");
+    }
+
+    @DisplayName("Tampered cursor rejected")
+    @Test
+    void testDecode_whenInvalidCursorGiven_throwsIllegalArgumentException() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> UserCursor.decode("not-a-cursor"),
+                "Was expecting IllegalArgumentException to be thrown");
+    }
+}
@@ -0,0 +1,78 @@
+package com.boot.junit.shared;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+public class UserKeyDirectoryTest {
+
+    @DisplayName("Stored email resolves to its id and userId")
+    @Test
+    void testFind_whenEmailStored_returnsIdAndUserId() {
+        // Arrange
+        UserKeyDirectory directory = new UserKeyDirectory(16);
+        String userId = UUID.randomUUID().toString();
+        directory.put(7L, userId, "shilpi@pagli.com");
+        directory.put(8L, "legacy-1", "anirudh@pagli.com");
+
+        // Act
+        long id = directory.findId("shilpi@pagli.com");
+        String packedUserId = directory.findUserId("shilpi@pagli.com");
+        String rawUserId = directory.findUserId("anirudh@pagli.com");
+
+        // Assert
+        Assertions.assertEquals(7L, id, "Id should match");
+        Assertions.assertEquals(userId, packedUserId, "UUID userId should decode to the same string");
+        Assertions.assertEquals("legacy-1", rawUserId, "Non UUID userId should be kept as is");
+    }
+
+    @DisplayName("Unknown email is not found")
+    @Test
+    void testFind_whenEmailMissing_returnsNotFound() {
+        // Arrange
+        UserKeyDirectory directory = new UserKeyDirectory(16);
+        directory.put(1L, "1", "shilpi@pagli.com");
+
+        // Act & Assert
+        Assertions.assertEquals(UserKeyDirectory.NOT_FOUND, directory.findId("nobody@pagli.com"), "Missing email should have no id");
+        Assertions.assertNull(directory.findUserId("nobody@pagli.com"), "Missing email should have no userId");
+    }
+
+    @DisplayName("Growing past the initial table keeps every entry")
+    @Test
+    void testPut_whenTableGrows_keepsAllEntries() {
+        // Arrange
+        UserKeyDirectory directory = new UserKeyDirectory(16);
+        int users = 50_000;
+
+        // Act
+        for (int i = 0; i < users; i++) {
+            directory.put(i + 1, "user-" + i, "user" + i + "@pagli.com");
+        }
+
+        // Assert
+        Assertions.assertEquals(users, directory.size(), "Every email should be counted once");
+        for (int i = 0; i < users; i++) {
+            Assertions.assertEquals(i + 1, directory.findId("user" + i + "@pagli.com"), "Id of user " + i + " should survive the resize");
+        }
+        Assertions.assertTrue(directory.usedBytes() <= directory.allocatedBytes(), "Used bytes should fit the allocated ones");
+    }
+
+    @DisplayName("Repeated put for an email replaces its entry")
+    @Test
+    void testPut_whenEmailStoredAgain_replacesEntry() {
+        // Arrange
+        UserKeyDirectory directory = new UserKeyDirectory(16);
+        directory.put(1L, "old", "shilpi@pagli.com");
+
+        // Act
+        directory.put(2L, "new", "shilpi@pagli.com");
+
+        // Assert
+        Assertions.assertEquals(1, directory.size(), "Email should be counted once");
+        Assertions.assertEquals(2L, directory.findId("shilpi@pagli.com"), "Latest id should win");
+        Assertions.assertEquals("new", directory.findUserId("shilpi@pagli.com"), "Latest userId should win");
+    }
+}
@@ -0,0 +1,67 @@
+package com.boot.junit.shared;
+
+import com.boot.junit.model.UserDetailsRequestModel;
+import com.boot.junit.model.UserRest;
+import com.boot.junit.repo.UserEntity;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class UserMapperTest {
+
+    @DisplayName("Request model mapped to UserDto")
+    @Test
+    void testToDto_whenRequestModelGiven_copiesAllFields() {
+        // Arrange
+        UserDetailsRequestModel requestModel = new UserDetailsRequestModel();
+        requestModel.setFirstName("Shilpi");
+        requestModel.setLastName("Patel");
+        requestModel.setEmail("shilpi@pagli.com");
+        requestModel.setPassword("12345678");
+
+        // Act
+        UserDto userDto = UserMapper.toDto(requestModel);
+
+        // Assert
+        Assertions.assertEquals(requestModel.getFirstName(), userDto.getFirstName(), "FirstName should match");
+        Assertions.assertEquals(requestModel.getLastName(), userDto.getLastName(), "LastName should match");
+        Assertions.assertEquals(requestModel.getEmail(), userDto.getEmail(), "Email should match");
+        Assertions.assertEquals(requestModel.getPassword(), userDto.getPassword(), "Password should match");
+    }
+
+    @DisplayName("UserEntity list mapped to UserRest list")
+    @Test
+    void testToRests_whenEntitiesGiven_preservesOrderAndFields() {
+        // Arrange
+        UserEntity userEntity1 = new UserEntity();
+        userEntity1.setId(1L);
+        userEntity1.setUserId("1");
+        userEntity1.setFirstName("Shilpi");
+        userEntity1.setLastName("Patel");
+        userEntity1.setEmail("shilpi@pagli.com");
+
+        UserEntity userEntity2 = new UserEntity();
+        userEntity2.setId(2L);
+        userEntity2.setUserId("2");
+        userEntity2.setFirstName("Anirudh");
+        userEntity2.setLastName("Patel");
+        userEntity2.setEmail("patel.anirudh@gmail.com");
+
+        // Act
+        List<UserRest> users = UserMapper.toRests(UserMapper.toDtos(Arrays.asList(userEntity1, userEntity2)));
+
+        // Assert
+        Assertions.assertEquals(2, users.size(), "There should be 2 users in the list");
+        Assertions.assertEquals(userEntity1.getUserId(), users.get(0).getUserId(), "UserId should match");
+        Assertions.assertEquals(userEntity2.getEmail(), users.get(1).getEmail(), "Email should match");
+    }
+
+    @DisplayName("Null source mapped to null")
+    @Test
+    void testToRest_whenNullGiven_returnsNull() {
+        Assertions.assertNull(UserMapper.toRest(null), "Null UserDto should map to null");
+    }
+}